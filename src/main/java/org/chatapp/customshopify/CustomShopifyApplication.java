@@ -2,8 +2,10 @@ package org.chatapp.customshopify;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class CustomShopifyApplication {
 
     public static void main(String[] args) {
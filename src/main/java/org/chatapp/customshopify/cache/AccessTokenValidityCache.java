@@ -0,0 +1,63 @@
+package org.chatapp.customshopify.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Remembers the outcome of access token validation per (shop, token).
+ * Valid results live for the positive TTL, invalid ones (Shopify answered 401/403) only briefly;
+ * a failed validation call is never stored.
+ * A 401 from the Shopify API evicts the entry so the next request re-validates.
+ */
+@Component
+public class AccessTokenValidityCache {
+
+    private final Cache<TokenKey, Boolean> cache;
+
+    public AccessTokenValidityCache(@Value("${app.cache.token-validity.max-size:10000}") long maxSize,
+                                    @Value("${app.cache.token-validity.ttl:10m}") Duration validTtl,
+                                    @Value("${app.cache.token-validity.negative-ttl:30s}") Duration invalidTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<TokenKey, Boolean>() {
+                    @Override
+                    public long expireAfterCreate(TokenKey key, Boolean valid, long currentTime) {
+                        return (valid ? validTtl : invalidTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(TokenKey key, Boolean valid, long currentTime, long currentDuration) {
+                        return (valid ? validTtl : invalidTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(TokenKey key, Boolean valid, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * @return the cached validity, or null if the token has to be checked remotely
+     */
+    public Boolean get(String shop, String accessToken) {
+        return cache.getIfPresent(new TokenKey(shop, accessToken));
+    }
+
+    public void put(String shop, String accessToken, boolean valid) {
+        cache.put(new TokenKey(shop, accessToken), valid);
+    }
+
+    public void invalidate(String shop, String accessToken) {
+        cache.invalidate(new TokenKey(shop, accessToken));
+    }
+
+    private record TokenKey(String shop, String accessToken) {
+    }
+}
@@ -0,0 +1,80 @@
+package org.chatapp.customshopify.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.chatapp.customshopify.entity.AppSettings;
+import org.chatapp.customshopify.repository.AppSettingsRepository;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read-through cache of AppSettings per shop.
+ * Local writes invalidate synchronously; writes made on other nodes are picked up
+ * by polling app_settings.updated_at.
+ */
+@Component
+@Slf4j
+public class AppSettingsCache {
+
+    private final AppSettingsRepository settingsRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Cache<String, AppSettings> cache;
+    private final Duration pollOverlap;
+    private volatile LocalDateTime lastPoll = LocalDateTime.now();
+
+    public AppSettingsCache(AppSettingsRepository settingsRepository,
+                            EntityManagerFactory entityManagerFactory,
+                            @Value("${app.cache.settings.max-size:10000}") long maxSize,
+                            @Value("${app.cache.settings.ttl:10m}") Duration ttl,
+                            @Value("${app.cache.settings.poll-overlap:10s}") Duration pollOverlap) {
+        this.settingsRepository = settingsRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.pollOverlap = pollOverlap;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Settings for the shop, or unsaved defaults if the shop has none yet.
+     * The returned instance is shared and must not be modified.
+     */
+    public AppSettings get(String shop) {
+        return cache.get(shop, key -> settingsRepository.findByShop(key).orElse(new AppSettings(key)));
+    }
+
+    public void invalidate(String shop) {
+        cache.invalidate(shop);
+    }
+
+    /**
+     * Evict shops whose settings were changed by any node since the last poll.
+     * The window overlaps the previous one to tolerate clock skew between nodes.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.settings.poll-interval-ms:5000}")
+    public void pollRemoteInvalidations() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            List<String> changedShops = settingsRepository.findShopsUpdatedSince(lastPoll.minus(pollOverlap));
+            if (!changedShops.isEmpty()) {
+                log.debug("Evicting settings for {} changed shop(s)", changedShops.size());
+                cache.invalidateAll(changedShops);
+                // The second-level and query caches are per node too
+                entityManagerFactory.getCache().evict(AppSettings.class);
+                entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+            }
+            lastPoll = now;
+        } catch (Exception e) {
+            log.warn("Settings invalidation poll failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.chatapp.customshopify.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.chatapp.customshopify.repository.ProductNameTrigramRepository;
+import org.chatapp.customshopify.util.ProductNameNormalizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Per-shop in-memory index of distinct product names, loaded from product_name_trigrams.
+ * Every word start of a normalized name is a sorted key, so autocomplete is a range scan:
+ * "cot" finds "Blue Cotton Shirt". Other nodes' new names show up after the TTL.
+ */
+@Component
+public class ProductNameIndex {
+
+    // Separates the normalized suffix from the original name inside a key
+    private static final char SEPARATOR = '\u0000';
+
+    private final LoadingCache<String, ShopNames> cache;
+
+    public ProductNameIndex(ProductNameTrigramRepository trigramRepository,
+                            @Value("${app.cache.product-names.max-shops:1000}") long maxShops,
+                            @Value("${app.cache.product-names.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxShops)
+                .expireAfterWrite(ttl)
+                .build(shop -> {
+                    ShopNames names = new ShopNames();
+                    trigramRepository.findDistinctProductNames(shop).forEach(names::add);
+                    return names;
+                });
+    }
+
+    /**
+     * Names with a word starting with the prefix, in key order.
+     */
+    public List<String> suggest(String shop, String prefix, int limit) {
+        String from = ProductNameNormalizer.normalize(prefix);
+        if (from.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String key : cache.get(shop).keys.subSet(from, from + Character.MAX_VALUE)) {
+            names.add(key.substring(key.indexOf(SEPARATOR) + 1));
+            if (names.size() >= limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    public boolean contains(String shop, String name) {
+        ShopNames names = cache.getIfPresent(shop);
+        return names != null && names.normalizedByName.containsKey(name);
+    }
+
+    /**
+     * Add a name to a loaded shop, after commit when called inside a transaction.
+     */
+    public void add(String shop, String name) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addNow(shop, name);
+                }
+            });
+        } else {
+            addNow(shop, name);
+        }
+    }
+
+    private void addNow(String shop, String name) {
+        ShopNames names = cache.getIfPresent(shop);
+        if (names != null) {
+            names.add(name);
+        }
+    }
+
+    private static final class ShopNames {
+        private final ConcurrentSkipListSet<String> keys = new ConcurrentSkipListSet<>();
+        private final Map<String, String> normalizedByName = new ConcurrentHashMap<>();
+
+        void add(String name) {
+            String normalized = ProductNameNormalizer.normalize(name);
+            if (normalized.isEmpty() || normalizedByName.putIfAbsent(name, normalized) != null) {
+                return;
+            }
+            for (int i = 0; i < normalized.length(); i++) {
+                if (i == 0 || normalized.charAt(i - 1) == ' ') {
+                    keys.add(normalized.substring(i) + SEPARATOR + name);
+                }
+            }
+        }
+    }
+}
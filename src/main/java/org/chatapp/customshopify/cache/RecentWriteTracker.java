@@ -0,0 +1,43 @@
+package org.chatapp.customshopify.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.chatapp.customshopify.event.ReviewChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Shops whose reviews changed within the last app.datasource.replicas.sticky-for.
+ * Their reads stay on the primary until replicas have surely caught up (read-your-writes).
+ * Local changes are marked after commit, other nodes' changes by ReviewVersionCache's poll.
+ */
+@Component
+public class RecentWriteTracker {
+
+    private final Cache<String, Boolean> recentWrites;
+
+    public RecentWriteTracker(@Value("${app.datasource.replicas.sticky-for:10s}") Duration stickyFor,
+                              @Value("${app.datasource.replicas.sticky-max-shops:100000}") long maxShops) {
+        this.recentWrites = Caffeine.newBuilder()
+                .maximumSize(maxShops)
+                .expireAfterWrite(stickyFor)
+                .build();
+    }
+
+    public void markWritten(String shop) {
+        recentWrites.put(shop, Boolean.TRUE);
+    }
+
+    public boolean isRecentlyWritten(String shop) {
+        return recentWrites.getIfPresent(shop) != null;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        markWritten(event.shop());
+    }
+}
@@ -0,0 +1,118 @@
+package org.chatapp.customshopify.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.chatapp.customshopify.entity.ProductReviewVersion;
+import org.chatapp.customshopify.event.ReviewChangedEvent;
+import org.chatapp.customshopify.repository.ProductReviewVersionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-through cache of product_review_versions, used to answer conditional GETs
+ * without touching the database. Local changes evict after commit; changes made on
+ * other nodes are picked up by polling product_review_versions.updated_at.
+ * The shop-wide version (productId null) is summed from the product rows and evicted
+ * with any of them.
+ */
+@Component
+@Slf4j
+public class ReviewVersionCache {
+
+    private final ProductReviewVersionRepository versionRepository;
+    private final RecentWriteTracker recentWriteTracker;
+    private final Cache<VersionKey, Long> cache;
+    private final Duration pollOverlap;
+    private volatile LocalDateTime lastPoll = LocalDateTime.now();
+
+    public ReviewVersionCache(ProductReviewVersionRepository versionRepository,
+                              RecentWriteTracker recentWriteTracker,
+                              @Value("${app.cache.review-versions.max-size:50000}") long maxSize,
+                              @Value("${app.cache.review-versions.ttl:10m}") Duration ttl,
+                              @Value("${app.cache.review-versions.poll-overlap:10s}") Duration pollOverlap) {
+        this.versionRepository = versionRepository;
+        this.recentWriteTracker = recentWriteTracker;
+        this.pollOverlap = pollOverlap;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * @param productId null for the shop-wide version
+     * @return the current version, 0 if nothing has changed yet
+     */
+    public long get(String shop, String productId) {
+        return cache.get(new VersionKey(shop, productId), key -> key.productId() == null
+                ? versionRepository.sumVersions(key.shop())
+                : versionRepository.findVersion(key.shop(), key.productId()).orElse(0L));
+    }
+
+    /**
+     * Versions of several products with one query for the ones not cached.
+     */
+    public Map<String, Long> getAll(String shop, Collection<String> productIds) {
+        Map<VersionKey, Long> versions = cache.getAll(
+                productIds.stream().map(productId -> new VersionKey(shop, productId)).toList(),
+                keys -> {
+                    Map<VersionKey, Long> loaded = new HashMap<>();
+                    keys.forEach(key -> loaded.put(key, 0L));
+                    versionRepository.findByShopAndProductIdIn(shop,
+                                    keys.stream().map(VersionKey::productId).toList())
+                            .forEach(version -> loaded.put(
+                                    new VersionKey(version.getShop(), version.getProductId()), version.getVersion()));
+                    return loaded;
+                });
+        Map<String, Long> byProduct = new HashMap<>();
+        versions.forEach((key, version) -> byProduct.put(key.productId(), version));
+        return byProduct;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        cache.invalidate(new VersionKey(event.shop(), event.productId()));
+        cache.invalidate(new VersionKey(event.shop(), null));
+    }
+
+    /**
+     * Evict versions bumped by any node since the last poll, and mark their shops as recently written.
+     * The window overlaps the previous one to tolerate clock skew between nodes.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.review-versions.poll-interval-ms:5000}")
+    public void pollRemoteInvalidations() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            List<ProductReviewVersion> changed = versionRepository.findUpdatedSince(lastPoll.minus(pollOverlap));
+            if (!changed.isEmpty()) {
+                log.debug("Evicting {} changed review version(s)", changed.size());
+                cache.invalidateAll(changed.stream()
+                        .map(version -> new VersionKey(version.getShop(), version.getProductId()))
+                        .toList());
+                cache.invalidateAll(changed.stream()
+                        .map(version -> new VersionKey(version.getShop(), null))
+                        .distinct()
+                        .toList());
+                // Shops written on other nodes also read from the primary for a while
+                changed.forEach(version -> recentWriteTracker.markWritten(version.getShop()));
+            }
+            lastPoll = now;
+        } catch (Exception e) {
+            log.warn("Review version poll failed: {}", e.getMessage());
+        }
+    }
+
+    private record VersionKey(String shop, String productId) {
+    }
+}
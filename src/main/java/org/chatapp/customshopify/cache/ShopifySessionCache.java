@@ -0,0 +1,66 @@
+package org.chatapp.customshopify.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.chatapp.customshopify.entity.ShopifySession;
+import org.chatapp.customshopify.repository.ShopifySessionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * In-memory ShopifySession lookup by shop for the auth hot path.
+ * Only existing sessions are cached, so a shop without a session always
+ * goes back to the database (and to token exchange).
+ */
+@Component
+public class ShopifySessionCache {
+
+    private final ShopifySessionRepository sessionRepository;
+    private final Cache<String, ShopifySession> cache;
+
+    public ShopifySessionCache(ShopifySessionRepository sessionRepository,
+                               @Value("${app.cache.sessions.max-size:10000}") long maxSize,
+                               @Value("${app.cache.sessions.ttl:30m}") Duration ttl) {
+        this.sessionRepository = sessionRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Optional<ShopifySession> get(String shop) {
+        ShopifySession cached = cache.getIfPresent(shop);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        List<ShopifySession> sessions = sessionRepository.findByShop(shop);
+        if (sessions.isEmpty()) {
+            return Optional.empty();
+        }
+        ShopifySession session = sessions.get(0);
+        cache.put(shop, session);
+        return Optional.of(session);
+    }
+
+    /**
+     * Drop the cached session now and, when called inside a transaction, again
+     * after commit so a concurrent reader cannot re-cache the old row.
+     */
+    public void invalidate(String shop) {
+        cache.invalidate(shop);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(shop);
+                }
+            });
+        }
+    }
+}
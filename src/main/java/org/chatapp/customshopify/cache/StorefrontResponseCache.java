@@ -0,0 +1,130 @@
+package org.chatapp.customshopify.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.chatapp.customshopify.event.ReviewChangedEvent;
+import org.chatapp.customshopify.exception.AppException;
+import org.chatapp.customshopify.exception.ErrorCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Fully serialized storefront responses (review pages and stats), grouped per (shop, productId).
+ * A hit is written to the client as-is: no database access and no Jackson work.
+ * <p>
+ * A ReviewChangedEvent drops the product's group and the shop-wide group after commit.
+ * Loaders register against the group before reading, so a response computed from
+ * pre-commit data lands in a group that has already been dropped and is never served.
+ * Each body is stored with the review version (ReviewVersionCache) it was built under and only
+ * served for that version, so changes made on other nodes take effect once the version moves.
+ * The cache is bounded by the total size of the stored bodies, not by the number of products.
+ */
+@Component
+@Slf4j
+public class StorefrontResponseCache {
+
+    private final ObjectWriter writer;
+    private final int maxVariantsPerProduct;
+    private final Cache<ProductKey, ConcurrentMap<Variant, VersionedBody>> cache;
+
+    public StorefrontResponseCache(ObjectMapper objectMapper,
+                                   @Value("${app.cache.storefront.max-size:64MB}") DataSize maxSize,
+                                   @Value("${app.cache.storefront.max-variants-per-product:64}") int maxVariantsPerProduct,
+                                   @Value("${app.cache.storefront.ttl:60s}") Duration ttl) {
+        // Built once: per-call writeValueAsBytes on the mapper re-creates the serialization config
+        this.writer = objectMapper.writer();
+        this.maxVariantsPerProduct = maxVariantsPerProduct;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((ProductKey key, ConcurrentMap<Variant, VersionedBody> group) -> weigh(group))
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * @param productId null for shop-wide listings and stats
+     * @param version   current review version of (shop, productId)
+     * @param loader    builds the response body on a miss
+     */
+    public byte[] get(String shop, String productId, long version, Variant variant, Supplier<Object> loader) {
+        ProductKey key = new ProductKey(shop, productId);
+        ConcurrentMap<Variant, VersionedBody> group = cache.get(key, k -> new ConcurrentHashMap<>());
+        VersionedBody cached = group.get(variant);
+        if (cached != null && cached.version() == version) {
+            return cached.body();
+        }
+        byte[] body = serialize(loader.get());
+        if (group.size() < maxVariantsPerProduct || cached != null) {
+            group.put(variant, new VersionedBody(version, body));
+            // The weight is only computed on write: re-put the group (unless it was dropped meanwhile)
+            cache.asMap().replace(key, group, group);
+        }
+        return body;
+    }
+
+    public void invalidate(String shop, String productId) {
+        cache.invalidate(new ProductKey(shop, productId));
+        // Shop-wide listings and stats include this product
+        cache.invalidate(new ProductKey(shop, null));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        log.debug("Evicting storefront responses for {} / {} ({})", event.shop(), event.productId(), event.type());
+        invalidate(event.shop(), event.productId());
+    }
+
+    private static int weigh(ConcurrentMap<Variant, VersionedBody> group) {
+        long bytes = 0;
+        for (VersionedBody body : group.values()) {
+            bytes += body.body().length;
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private byte[] serialize(Object response) {
+        try {
+            return writer.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            log.error("Cannot serialize storefront response: {}", e.getMessage());
+            throw new AppException(ErrorCode.INTERNAL_ERROR);
+        }
+    }
+
+    private record ProductKey(String shop, String productId) {
+    }
+
+    private record VersionedBody(long version, byte[] body) {
+    }
+
+    /**
+     * Everything besides (shop, productId) that shapes a storefront response.
+     */
+    public record Variant(String kind, Integer rating, int page, int size, Integer commentPreview) {
+
+        public static Variant reviews(Integer rating, int page, int size, Integer commentPreview) {
+            return new Variant("reviews", rating, page, size, commentPreview);
+        }
+
+        public static Variant slice(Integer rating, int page, int size, Integer commentPreview,
+                                    boolean approximateTotal) {
+            return new Variant(approximateTotal ? "slice-total" : "slice", rating, page, size, commentPreview);
+        }
+
+        public static Variant stats() {
+            return new Variant("stats", null, 0, 0, null);
+        }
+    }
+}
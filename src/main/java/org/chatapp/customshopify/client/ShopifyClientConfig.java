@@ -22,14 +22,14 @@ public class ShopifyClientConfig {
 
     private final ShopifyConfig shopifyConfig;
 
-    private static final int RESPONSE_TIMEOUT_SECONDS = 30;
+    public static final Duration RESPONSE_TIMEOUT = Duration.ofSeconds(30);
     private static final int MAX_MEMORY_SIZE = 16 * 1024 * 1024; // 16MB
 
 
     @Bean
     public WebClient shopifyWebClient() {
         HttpClient httpClient = HttpClient.create()
-                .responseTimeout(Duration.ofSeconds(RESPONSE_TIMEOUT_SECONDS));
+                .responseTimeout(RESPONSE_TIMEOUT);
 
         ExchangeStrategies strategies = ExchangeStrategies.builder()
                 .codecs(configurer -> configurer
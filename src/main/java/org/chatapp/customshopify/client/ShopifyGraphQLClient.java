@@ -2,9 +2,11 @@ package org.chatapp.customshopify.client;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.chatapp.customshopify.cache.AccessTokenValidityCache;
 import org.chatapp.customshopify.dto.request.GraphQLRequest;
 import org.chatapp.customshopify.exception.AppException;
 import org.chatapp.customshopify.exception.ErrorCode;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -23,6 +25,7 @@ public class ShopifyGraphQLClient {
 
     private final WebClient shopifyWebClient;
     private final ShopifyClientConfig clientConfig;
+    private final AccessTokenValidityCache validityCache;
 
     /**
      * Execute a GraphQL query/mutation and return the response mapped to the
@@ -54,6 +57,7 @@ public class ShopifyGraphQLClient {
 
         } catch (WebClientResponseException e) {
             log.error("Shopify API error for shop {}: {} - {}", shop, e.getStatusCode(), e.getResponseBodyAsString());
+            onErrorResponse(shop, accessToken, e);
             throw new AppException(ErrorCode.SHOPIFY_API_ERROR);
         } catch (Exception e) {
             log.error("Error executing GraphQL request for shop: {}", shop, e);
@@ -82,6 +86,7 @@ public class ShopifyGraphQLClient {
                 .retrieve()
                 .bodyToMono(responseType)
                 .doOnSuccess(r -> log.debug("Async GraphQL request successful for shop: {}", shop))
+                .doOnError(WebClientResponseException.class, e -> onErrorResponse(shop, accessToken, e))
                 .doOnError(e -> log.error("Async GraphQL error for shop: {}", shop, e));
     }
 
@@ -115,9 +120,24 @@ public class ShopifyGraphQLClient {
             log.debug("Mutation executed successfully for shop: {}", shop);
             return true;
 
+        } catch (WebClientResponseException e) {
+            log.error("Error executing mutation for shop {}: {}", shop, e.getStatusCode());
+            onErrorResponse(shop, accessToken, e);
+            return false;
         } catch (Exception e) {
             log.error("Error executing mutation for shop: {}", shop, e);
             return false;
         }
     }
+
+    /**
+     * A 401 means the token was revoked: drop its cached validity so the next
+     * authenticated request re-validates it against Shopify.
+     */
+    private void onErrorResponse(String shop, String accessToken, WebClientResponseException e) {
+        if (e.getStatusCode().value() == HttpStatus.UNAUTHORIZED.value()) {
+            log.warn("Shopify rejected access token for shop {} - forcing re-validation", shop);
+            validityCache.invalidate(shop, accessToken);
+        }
+    }
 }
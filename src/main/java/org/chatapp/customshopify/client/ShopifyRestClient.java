@@ -86,7 +86,8 @@ public class ShopifyRestClient {
                     .bodyValue(request)
                     .retrieve()
                     .bodyToMono(TokenExchangeResponse.class)
-                    .block();
+                    // Whole-call bound: callers of the same shop wait on this exchange
+                    .block(ShopifyClientConfig.RESPONSE_TIMEOUT);
 
             if (response == null || response.getAccessToken() == null) {
                 log.error("Empty response from session token exchange for shop: {}", shop);
@@ -0,0 +1,97 @@
+package org.chatapp.customshopify.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level and query cache, in-process Caffeine through JCache.
+ * <p>
+ * Every region is created here with its own size and TTL (app.cache.l2.{region}.max-size / ttl),
+ * and any region not listed fails startup. Each region reports Caffeine's hit/miss/eviction
+ * counters as cache.* meters tagged cache=hibernate.{region}.
+ * <p>
+ * The cache is per node: writes made elsewhere are seen once an entry expires, so TTLs are short,
+ * and write paths read the row itself (ProductReviewRepository.findForUpdateById).
+ */
+@Configuration
+@Slf4j
+public class HibernateCacheConfig {
+
+    // Region names used in the entities' @Cache annotations
+    private static final String REVIEWS = "product-reviews";
+    private static final String REVIEW_MEDIA = "review-media";
+    private static final String REVIEW_MEDIA_COLLECTIONS = "product-reviews.media";
+    private static final String SETTINGS = "app-settings";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment env, MeterRegistry meterRegistry) {
+        // A manager of its own: the provider's default one is JVM-wide, so a second context
+        // (tests, devtools restart) would find these regions already created
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("hibernate-l2:" + UUID.randomUUID()), provider.getDefaultClassLoader());
+        region(cacheManager, env, meterRegistry, REVIEWS, 10_000, Duration.ofSeconds(60));
+        region(cacheManager, env, meterRegistry, REVIEW_MEDIA, 50_000, Duration.ofSeconds(60));
+        region(cacheManager, env, meterRegistry, REVIEW_MEDIA_COLLECTIONS, 10_000, Duration.ofSeconds(60));
+        region(cacheManager, env, meterRegistry, SETTINGS, 10_000, Duration.ofMinutes(10));
+        region(cacheManager, env, meterRegistry, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                10_000, Duration.ofMinutes(10));
+        // One entry per table; must not be evicted or expire before the query results that depend on it
+        region(cacheManager, env, meterRegistry, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                0, Duration.ZERO);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheProperties(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /**
+     * @param defaultMaxSize 0 for unbounded
+     * @param defaultTtl     zero for no expiry
+     */
+    private static void region(CacheManager cacheManager, Environment env, MeterRegistry meterRegistry,
+                               String name, long defaultMaxSize, Duration defaultTtl) {
+        long maxSize = env.getProperty("app.cache.l2." + name + ".max-size", Long.class, defaultMaxSize);
+        Duration ttl = env.getProperty("app.cache.l2." + name + ".ttl", Duration.class, defaultTtl);
+
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate stores immutable cache entries; copying them on every get/put is wasted work
+        configuration.setStoreByValue(false);
+        configuration.setNativeStatisticsEnabled(true);
+        configuration.setMaximumSize(maxSize > 0 ? OptionalLong.of(maxSize) : OptionalLong.empty());
+        configuration.setExpireAfterWrite(ttl.isZero() ? OptionalLong.empty() : OptionalLong.of(ttl.toNanos()));
+        javax.cache.Cache<Object, Object> cache = cacheManager.createCache(name, configuration);
+
+        @SuppressWarnings("unchecked")
+        Cache<Object, Object> nativeCache = cache.unwrap(Cache.class);
+        CaffeineCacheMetrics.monitor(meterRegistry, nativeCache, "hibernate." + name);
+        log.debug("L2 cache region {}: max {} entries, ttl {}", name, maxSize > 0 ? maxSize : "unbounded", ttl);
+    }
+}
@@ -0,0 +1,20 @@
+package org.chatapp.customshopify.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Jackson modules picked up by Spring Boot's ObjectMapper (MVC converters, WebFlux codecs,
+ * StorefrontResponseCache). Blackbird replaces reflective getter/setter calls with generated
+ * lambdas; see JsonSerializationBenchmark.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,122 @@
+package org.chatapp.customshopify.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.chatapp.customshopify.controller.ReactiveReviewHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+
+/**
+ * Reactive storefront read stack, enabled with app.reactive.enabled=true.
+ * Runs a separate Reactor Netty server (app.reactive.port) next to Tomcat, backed by an R2DBC pool.
+ * Boot's R2DBC auto-configuration is excluded in application.properties so the JPA
+ * transaction manager stays the only one.
+ */
+@Configuration
+@Slf4j
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveReadConfig {
+
+    // Not a bean: a ConnectionFactory bean would make Boot back off its JDBC DataSource
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(
+            @Value("${app.reactive.r2dbc.url}") String url,
+            @Value("${app.reactive.r2dbc.username:${spring.datasource.username:}}") String username,
+            @Value("${app.reactive.r2dbc.password:${spring.datasource.password:}}") String password,
+            @Value("${app.reactive.r2dbc.pool.max-size:20}") int maxSize,
+            @Value("${app.reactive.r2dbc.pool.max-acquire-time:2s}") Duration maxAcquireTime) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (StringUtils.hasText(username)) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (StringUtils.hasText(password)) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        ConnectionFactory connectionFactory = ConnectionFactories.get(options.build());
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .maxSize(maxSize)
+                .maxAcquireTime(maxAcquireTime)
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void closeConnectionPool() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+
+    @Bean
+    public ReactiveReadServer reactiveReadServer(ReactiveReviewHandler reviewHandler,
+                                                 ObjectMapper objectMapper,
+                                                 @Value("${app.reactive.port:8081}") int port) {
+        return new ReactiveReadServer(reviewHandler, objectMapper, port);
+    }
+
+    public static class ReactiveReadServer implements SmartLifecycle {
+
+        private final ReactiveReviewHandler reviewHandler;
+        private final ObjectMapper objectMapper;
+        private final int port;
+        private volatile DisposableServer server;
+
+        ReactiveReadServer(ReactiveReviewHandler reviewHandler, ObjectMapper objectMapper, int port) {
+            this.reviewHandler = reviewHandler;
+            this.objectMapper = objectMapper;
+            this.port = port;
+        }
+
+        @Override
+        public void start() {
+            // Use the application's ObjectMapper so JSON matches the servlet endpoints
+            HandlerStrategies strategies = HandlerStrategies.builder()
+                    .codecs(codecs -> {
+                        codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                        codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                    })
+                    .build();
+            var httpHandler = RouterFunctions.toHttpHandler(reviewHandler.routes(), strategies);
+            server = HttpServer.create()
+                    .port(port)
+                    .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                    .bindNow();
+            log.info("✅ Reactive storefront reads listening on port {}", server.port());
+        }
+
+        @Override
+        public void stop() {
+            if (server != null) {
+                server.disposeNow();
+                server = null;
+            }
+        }
+
+        @Override
+        public boolean isRunning() {
+            return server != null;
+        }
+    }
+}
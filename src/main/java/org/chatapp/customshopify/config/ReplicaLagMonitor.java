@@ -0,0 +1,87 @@
+package org.chatapp.customshopify.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replication lag guard. Each check stamps replication_heartbeat on the primary and reads the
+ * stamp back from every replica; a replica whose stamp is older than max-lag (or that fails)
+ * gets no reads until it catches up. The measured lag includes up to one check interval.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private final JdbcTemplate primary;
+    private final Map<String, DataSource> replicas;
+    private final Map<String, JdbcTemplate> replicaTemplates = new LinkedHashMap<>();
+    private final long maxLagMillis;
+
+    // Nothing is trusted until the first check
+    private volatile List<String> healthyReplicas = List.of();
+
+    public ReplicaLagMonitor(DataSource primary, Map<String, DataSource> replicas, Duration maxLag) {
+        this.primary = new JdbcTemplate(primary);
+        this.replicas = Collections.unmodifiableMap(new LinkedHashMap<>(replicas));
+        this.maxLagMillis = maxLag.toMillis();
+        replicas.forEach((name, dataSource) -> replicaTemplates.put(name, new JdbcTemplate(dataSource)));
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    public List<String> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.check-interval-ms:1000}")
+    public void check() {
+        long now = System.currentTimeMillis();
+        try {
+            primary.update("UPDATE replication_heartbeat SET beat_millis = ? WHERE id = 1", now);
+        } catch (Exception e) {
+            log.warn("Replication heartbeat write failed: {}", e.getMessage());
+        }
+
+        List<String> healthy = new ArrayList<>();
+        replicaTemplates.forEach((name, replica) -> {
+            try {
+                Long beat = replica.queryForObject(
+                        "SELECT beat_millis FROM replication_heartbeat WHERE id = 1", Long.class);
+                long lag = beat != null ? now - beat : Long.MAX_VALUE;
+                if (lag <= maxLagMillis) {
+                    healthy.add(name);
+                } else if (healthyReplicas.contains(name)) {
+                    log.warn("⚠️ Replica {} is {} ms behind, reads go to the primary", name, lag);
+                }
+            } catch (Exception e) {
+                if (healthyReplicas.contains(name)) {
+                    log.warn("⚠️ Replica {} unavailable, reads go to the primary: {}", name, e.getMessage());
+                }
+            }
+        });
+        if (!healthy.equals(healthyReplicas)) {
+            log.info("🔄 Healthy replicas: {}", healthy);
+        }
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    @Override
+    public void close() {
+        replicas.values().forEach(dataSource -> {
+            if (dataSource instanceof HikariDataSource hikari) {
+                hikari.close();
+            }
+        });
+    }
+}
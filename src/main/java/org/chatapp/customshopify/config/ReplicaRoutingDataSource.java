@@ -0,0 +1,79 @@
+package org.chatapp.customshopify.config;
+
+import org.chatapp.customshopify.CustomShopifyApplication;
+import org.chatapp.customshopify.cache.RecentWriteTracker;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions declared in this application (e.g. ReviewService.getReviews)
+ * to a healthy replica, round robin, and everything else to the primary.
+ * Must sit behind a LazyConnectionDataSourceProxy: the read-only flag is only known after
+ * the transaction manager has asked for a connection.
+ *
+ * <p>Spring Data wraps every repository read in its own read-only transaction; those
+ * (sessions, settings, versions) are left on the primary, as are reads for a shop that
+ * was written to within the sticky window.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    private static final String APP_TRANSACTION_PREFIX = CustomShopifyApplication.class.getPackageName() + ".";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final RecentWriteTracker recentWriteTracker;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaLagMonitor lagMonitor,
+                                    RecentWriteTracker recentWriteTracker) {
+        this.lagMonitor = lagMonitor;
+        this.recentWriteTracker = recentWriteTracker;
+        Map<Object, Object> targets = new HashMap<>(lagMonitor.getReplicas());
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        String transaction = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (transaction == null || !transaction.startsWith(APP_TRANSACTION_PREFIX)) {
+            return PRIMARY;
+        }
+        String shop = currentShop();
+        if (shop != null && recentWriteTracker.isRecentlyWritten(shop)) {
+            return PRIMARY;
+        }
+        List<String> healthy = lagMonitor.getHealthyReplicas();
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+
+    // Shop of the current request, as set by ShopifyAuthInterceptor
+    private static String currentShop() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object shop = attributes.getAttribute("shop", RequestAttributes.SCOPE_REQUEST);
+        if (shop == null && attributes instanceof ServletRequestAttributes servlet) {
+            shop = servlet.getRequest().getParameter("shop");
+        }
+        return shop != null ? shop.toString() : null;
+    }
+}
@@ -1,11 +1,13 @@
 package org.chatapp.customshopify.config;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.chatapp.customshopify.cache.ShopifySessionCache;
 import org.chatapp.customshopify.entity.ShopifySession;
-import org.chatapp.customshopify.repository.ShopifySessionRepository;
+import org.chatapp.customshopify.service.AppProxySignatureVerifier;
 import org.chatapp.customshopify.service.ShopifyAuthService;
 import org.chatapp.customshopify.service.ShopifyTokenValidator;
 import org.springframework.stereotype.Component;
@@ -19,9 +21,10 @@ import java.util.List;
 @Slf4j
 public class ShopifyAuthInterceptor implements HandlerInterceptor {
     
-    private final ShopifySessionRepository sessionRepository;
+    private final ShopifySessionCache sessionCache;
     private final ShopifyTokenValidator tokenValidator;
     private final ShopifyAuthService authService;
+    private final AppProxySignatureVerifier appProxySignatureVerifier;
     
     // Endpoints không cần check token
     private static final List<String> EXCLUDED_PATHS = Arrays.asList(
@@ -32,6 +35,15 @@ public class ShopifyAuthInterceptor implements HandlerInterceptor {
         "/api/files",
         "/h2-console"
     );
+
+    // Storefront read endpoints that may be reached through the Shopify App Proxy
+    private static final List<String> APP_PROXY_PATHS = Arrays.asList(
+        "/api/reviews",
+        "/api/reviews/scroll",
+        "/api/reviews/slice",
+        "/api/reviews/stats",
+        "/api/reviews/stats/batch"
+    );
     
     @Override
     public boolean preHandle(HttpServletRequest request, 
@@ -41,6 +53,11 @@ public class ShopifyAuthInterceptor implements HandlerInterceptor {
         String path = request.getRequestURI();
         String method = request.getMethod();
         
+        // Async re-dispatch of an open stream: already authenticated when it was opened
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
         // Skip OPTIONS requests (CORS preflight)
         if ("OPTIONS".equalsIgnoreCase(method)) {
             return true;
@@ -51,6 +68,21 @@ public class ShopifyAuthInterceptor implements HandlerInterceptor {
             return true;
         }
         
+        // App Proxy (storefront): verify Shopify's signature locally, no DB or Shopify call
+        if ("GET".equalsIgnoreCase(method) && APP_PROXY_PATHS.contains(path)
+                && request.getParameter("signature") != null) {
+            if (!appProxySignatureVerifier.verify(request.getParameterMap())) {
+                log.warn("❌ Invalid App Proxy signature: {}", path);
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                response.setContentType("application/json");
+                response.getWriter().write("{\"error\": \"Invalid signature\"}");
+                return false;
+            }
+            request.setAttribute("shop", request.getParameter("shop"));
+            request.setAttribute("appProxy", true);
+            return true;
+        }
+
         log.debug("========== REQUEST VALIDATION ==========");
         log.debug("Path: {}", path);
         log.debug("Method: {}", method);
@@ -74,15 +106,15 @@ public class ShopifyAuthInterceptor implements HandlerInterceptor {
                 request.setAttribute("shop", shop);
                 
                 // Get or create access token for this shop
-                var sessions = sessionRepository.findByShop(shop);
-                if (!sessions.isEmpty()) {
-                    ShopifySession session = sessions.get(0);
-                    request.setAttribute("accessToken", session.getAccessToken());
+                var cachedSession = sessionCache.get(shop);
+                if (cachedSession.isPresent()) {
+                    request.setAttribute("accessToken", cachedSession.get().getAccessToken());
                 } else {
                     log.info("🔄 No access token in DB - initiating Token Exchange...");
                     try {
                         // Use Token Exchange to get Access Token from Session Token
-                        ShopifySession newSession = authService.exchangeSessionTokenForAccessToken(shop, sessionToken);
+                        // (concurrent requests for the same shop share one exchange)
+                        ShopifySession newSession = authService.exchangeSessionTokenSingleFlight(shop, sessionToken);
                         request.setAttribute("accessToken", newSession.getAccessToken());
                         log.info("✅ Token Exchange successful - Access Token obtained!");
                     } catch (Exception e) {
@@ -113,9 +145,9 @@ public class ShopifyAuthInterceptor implements HandlerInterceptor {
         log.debug("Shop: {}", shop);
         
         // Check if session exists
-        var sessions = sessionRepository.findByShop(shop);
+        var cachedSession = sessionCache.get(shop);
         
-        if (sessions.isEmpty()) {
+        if (cachedSession.isEmpty()) {
             log.warn("❌ No token found for shop: {}. Need OAuth...", shop);
             
             // Return JSON response with auth URL (redirect won't work for AJAX)
@@ -137,8 +169,8 @@ public class ShopifyAuthInterceptor implements HandlerInterceptor {
             return false;
         }
         
-        ShopifySession session = sessions.get(0);
-        log.debug("✅ Session found in DB");
+        ShopifySession session = cachedSession.get();
+        log.debug("✅ Session found");
         
         // Validate access token với Shopify API
         log.debug("Validating access token...");
@@ -149,7 +181,7 @@ public class ShopifyAuthInterceptor implements HandlerInterceptor {
             log.info("🔄 Deleting old session and requiring re-auth...");
             
             // Delete old invalid session
-            sessionRepository.delete(session);
+            authService.deleteSession(session);
             log.info("✅ Old session deleted");
             
             // Return JSON response for re-auth
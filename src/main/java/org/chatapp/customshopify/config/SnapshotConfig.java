@@ -0,0 +1,81 @@
+package org.chatapp.customshopify.config;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.WebResourceRoot;
+import org.apache.catalina.servlets.DefaultServlet;
+import org.apache.catalina.webresources.DirResourceSet;
+import org.chatapp.customshopify.service.ReviewSnapshotPublisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatContextCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+
+/**
+ * Serves the files written by ReviewSnapshotPublisher under /snapshots/* with Tomcat's DefaultServlet,
+ * outside Spring MVC: conditional GETs are answered from the file's ETag / Last-Modified and larger
+ * files go out through sendfile.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.snapshots.enabled", havingValue = "true")
+public class SnapshotConfig {
+
+    private static final String MOUNT = "/snapshots";
+
+    @Bean
+    public TomcatContextCustomizer snapshotResources(ReviewSnapshotPublisher publisher,
+                                                     @Value("${app.snapshots.file-cache-ttl:1s}") Duration cacheTtl) {
+        return context -> {
+            try {
+                Files.createDirectories(publisher.getRoot());
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot create snapshot directory " + publisher.getRoot(), e);
+            }
+            context.addLifecycleListener(event -> {
+                if ("configure_start".equals(event.getType())) {
+                    WebResourceRoot resources = context.getResources();
+                    resources.addPreResources(new DirResourceSet(resources, MOUNT,
+                            publisher.getRoot().toString(), "/"));
+                    // Tomcat caches small files in memory; keep replaced snapshots from being served for long
+                    resources.setCacheTtl(cacheTtl.toMillis());
+                }
+            });
+        };
+    }
+
+    /**
+     * Sets Cache-Control before the servlet runs; Spring Security then leaves its no-cache headers out.
+     */
+    @Bean
+    public FilterRegistrationBean<Filter> snapshotCacheControl(
+            @Value("${app.snapshots.max-age:10s}") Duration maxAge) {
+        String cacheControl = CacheControl.maxAge(maxAge).cachePublic().getHeaderValue();
+        FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>((request, response, chain) -> {
+            ((HttpServletResponse) response).setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            chain.doFilter(request, response);
+        });
+        registration.addUrlPatterns(MOUNT + "/*");
+        return registration;
+    }
+
+    @Bean
+    public ServletRegistrationBean<DefaultServlet> snapshotServlet(
+            @Value("${app.snapshots.sendfile-size-kb:16}") int sendfileSizeKb) {
+        ServletRegistrationBean<DefaultServlet> registration =
+                new ServletRegistrationBean<>(new DefaultServlet(), MOUNT + "/*");
+        registration.setName("reviewSnapshots");
+        registration.addInitParameter("listings", "false");
+        registration.addInitParameter("sendfileSize", String.valueOf(sendfileSizeKb));
+        registration.setLoadOnStartup(1);
+        return registration;
+    }
+}
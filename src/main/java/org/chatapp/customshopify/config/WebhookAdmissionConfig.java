@@ -0,0 +1,26 @@
+package org.chatapp.customshopify.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class WebhookAdmissionConfig {
+
+    @Bean
+    public FilterRegistrationBean<WebhookAdmissionFilter> webhookAdmissionFilter(
+            MeterRegistry meterRegistry,
+            @Value("${app.webhooks.admission.max-concurrent:16}") int maxConcurrent,
+            @Value("${app.webhooks.admission.max-wait-ms:50}") long maxWaitMillis,
+            @Value("${app.webhooks.admission.retry-after-seconds:5}") int retryAfterSeconds) {
+        FilterRegistrationBean<WebhookAdmissionFilter> registration = new FilterRegistrationBean<>(
+                new WebhookAdmissionFilter(maxConcurrent, maxWaitMillis, retryAfterSeconds, meterRegistry));
+        registration.addUrlPatterns("/webhooks/*");
+        // Run before the security chain so shed requests cost as little as possible
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,81 @@
+package org.chatapp.customshopify.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of webhook requests processed concurrently so that webhook
+ * bursts cannot take over the servlet thread pool. Requests over the limit get
+ * 503 with Retry-After and Shopify retries them later.
+ */
+@Slf4j
+public class WebhookAdmissionFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long maxWaitMillis;
+    private final String retryAfterSeconds;
+    private final Counter admitted;
+    private final Counter shed;
+
+    public WebhookAdmissionFilter(int maxConcurrent, long maxWaitMillis, int retryAfterSeconds,
+                                  MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxWaitMillis = maxWaitMillis;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+        this.admitted = Counter.builder("webhook.admission")
+                .tag("outcome", "admitted")
+                .description("Webhook requests admitted for processing")
+                .register(meterRegistry);
+        this.shed = Counter.builder("webhook.admission")
+                .tag("outcome", "shed")
+                .description("Webhook requests rejected with 503 because the limit was reached")
+                .register(meterRegistry);
+        Gauge.builder("webhook.admission.in.flight", permits, p -> maxConcurrent - p.availablePermits())
+                .description("Webhook requests currently being processed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = maxWaitMillis > 0
+                    ? permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)
+                    : permits.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            shed.increment();
+            log.debug("Shedding webhook {} - concurrency limit reached", request.getRequestURI());
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\": \"Too many webhooks in flight, retry later\"}");
+            return;
+        }
+
+        admitted.increment();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
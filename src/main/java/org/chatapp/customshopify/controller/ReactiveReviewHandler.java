@@ -0,0 +1,152 @@
+package org.chatapp.customshopify.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.chatapp.customshopify.dto.response.ApiResponse;
+import org.chatapp.customshopify.dto.response.PageResponse;
+import org.chatapp.customshopify.dto.response.ReviewItemResponse;
+import org.chatapp.customshopify.dto.response.ReviewMediaResponse;
+import org.chatapp.customshopify.dto.response.ReviewStatsResponse;
+import org.chatapp.customshopify.exception.ErrorCode;
+import org.chatapp.customshopify.repository.ReactiveReviewRepository;
+import org.chatapp.customshopify.service.AppProxySignatureVerifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Non-blocking storefront reads: GET /api/reviews and /api/reviews/stats.
+ * Same query parameters and JSON shape as ReviewController in storefront mode,
+ * served on the reactive port (app.reactive.port). Requests must come through
+ * the Shopify App Proxy (signature verified locally).
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveReviewHandler {
+
+    private final ReactiveReviewRepository reviewRepository;
+    private final AppProxySignatureVerifier appProxySignatureVerifier;
+    private final int maxPageSize;
+
+    public ReactiveReviewHandler(ReactiveReviewRepository reviewRepository,
+                                 AppProxySignatureVerifier appProxySignatureVerifier,
+                                 @Value("${app.reviews.max-page-size:50}") int maxPageSize) {
+        this.reviewRepository = reviewRepository;
+        this.appProxySignatureVerifier = appProxySignatureVerifier;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        return route(GET("/api/reviews"), this::getReviews)
+                .andRoute(GET("/api/reviews/stats"), this::getStats)
+                .filter((request, next) -> verified(request) ? next.handle(request) : unauthorized());
+    }
+
+    public Mono<ServerResponse> getReviews(ServerRequest request) {
+        String shop = request.queryParam("shop").orElse(null);
+        if (shop == null || shop.isEmpty()) {
+            return error(ErrorCode.SHOP_NOT_FOUND);
+        }
+        int page;
+        int size;
+        ReactiveReviewRepository.Filter filter;
+        try {
+            page = request.queryParam("page").map(Integer::parseInt).orElse(0);
+            size = request.queryParam("size").map(Integer::parseInt).orElse(10);
+            filter = new ReactiveReviewRepository.Filter(
+                    shop,
+                    request.queryParam("productId").orElse(null),
+                    request.queryParam("rating").map(Integer::valueOf).orElse(null),
+                    request.queryParam("productName").filter(name -> !name.isBlank()).orElse(null));
+        } catch (NumberFormatException e) {
+            return error(ErrorCode.INVALID_REQUEST);
+        }
+        // Same limits as ReviewController: a negative offset is a SQL error, a huge size reads the table
+        if (page < 0 || size < 1 || size > maxPageSize) {
+            return error(ErrorCode.INVALID_REQUEST);
+        }
+
+        Mono<List<ReviewItemResponse>> content = reviewRepository.findPublished(filter, page, size)
+                .collectList()
+                .flatMap(this::attachMedia);
+
+        return Mono.zip(content, reviewRepository.countPublished(filter))
+                .map(result -> PageResponse.of(result.getT1(), page, size, result.getT2()))
+                .flatMap(body -> ok(ApiResponse.<PageResponse<ReviewItemResponse>>builder().data(body).build()));
+    }
+
+    public Mono<ServerResponse> getStats(ServerRequest request) {
+        String shop = request.queryParam("shop").orElse(null);
+        if (shop == null || shop.isEmpty()) {
+            return error(ErrorCode.SHOP_NOT_FOUND);
+        }
+        return reviewRepository.getPublishedStats(shop, request.queryParam("productId").orElse(null))
+                .filter(stats -> stats.getTotalReviews() > 0)
+                .map(stats -> {
+                    stats.setAverageRating(stats.getAverageRating() != null
+                            ? Math.round(stats.getAverageRating() * 10.0) / 10.0
+                            : 0.0);
+                    return ApiResponse.<ReviewStatsResponse>builder().data(stats).build();
+                })
+                .defaultIfEmpty(ApiResponse.<ReviewStatsResponse>builder().build())
+                .flatMap(this::ok);
+    }
+
+    private Mono<List<ReviewItemResponse>> attachMedia(List<ReviewItemResponse> reviews) {
+        reviews.forEach(review -> review.setMedia(List.of()));
+        if (reviews.isEmpty()) {
+            return Mono.just(reviews);
+        }
+        List<Long> ids = reviews.stream().map(ReviewItemResponse::getId).toList();
+        return reviewRepository.findVisibleMedia(ids)
+                .collect(Collectors.groupingBy(ReactiveReviewRepository.MediaRow::reviewId,
+                        Collectors.mapping(ReactiveReviewRepository.MediaRow::media, Collectors.toList())))
+                .map(mediaByReview -> {
+                    reviews.forEach(review -> review.setMedia(
+                            mediaByReview.getOrDefault(review.getId(), List.<ReviewMediaResponse>of())));
+                    return reviews;
+                });
+    }
+
+    private boolean verified(ServerRequest request) {
+        MultiValueMap<String, String> queryParams = request.queryParams();
+        Map<String, String[]> params = new HashMap<>();
+        queryParams.forEach((key, values) -> params.put(key, values.toArray(String[]::new)));
+        return appProxySignatureVerifier.verify(params);
+    }
+
+    private Mono<ServerResponse> unauthorized() {
+        log.warn("❌ Reactive read without a valid App Proxy signature");
+        return ServerResponse.status(HttpStatus.UNAUTHORIZED)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("error", "Invalid signature"));
+    }
+
+    private Mono<ServerResponse> error(ErrorCode errorCode) {
+        return ServerResponse.status(errorCode.getHttpStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ApiResponse.builder()
+                        .code(errorCode.getCode())
+                        .message(errorCode.getMessage())
+                        .build());
+    }
+
+    private Mono<ServerResponse> ok(Object body) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(body);
+    }
+}
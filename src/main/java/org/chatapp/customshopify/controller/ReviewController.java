@@ -3,19 +3,32 @@ package org.chatapp.customshopify.controller;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.chatapp.customshopify.cache.ReviewVersionCache;
+import org.chatapp.customshopify.cache.StorefrontResponseCache;
 import org.chatapp.customshopify.dto.request.CreateReviewRequest;
 import org.chatapp.customshopify.dto.request.UpdateReviewStatusRequest;
 import org.chatapp.customshopify.dto.response.ApiResponse;
+import org.chatapp.customshopify.dto.response.CursorPageResponse;
+import org.chatapp.customshopify.dto.response.PageResponse;
+import org.chatapp.customshopify.dto.response.ReviewItemResponse;
 import org.chatapp.customshopify.dto.response.ReviewStatsResponse;
+import org.chatapp.customshopify.dto.response.SliceResponse;
 import org.chatapp.customshopify.entity.ProductReview;
 import org.chatapp.customshopify.exception.AppException;
 import org.chatapp.customshopify.exception.ErrorCode;
+import org.chatapp.customshopify.service.ProductNameSearchService;
 import org.chatapp.customshopify.service.ReviewService;
+import org.chatapp.customshopify.service.ReviewStreamService;
 import org.chatapp.customshopify.enums.HideReason;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +41,22 @@ import java.util.stream.Collectors;
 public class ReviewController {
 
     private final ReviewService reviewService;
+    private final StorefrontResponseCache responseCache;
+    private final ReviewVersionCache reviewVersionCache;
+    private final ProductNameSearchService productNameSearchService;
+    private final ReviewStreamService reviewStreamService;
+
+    // Bump when the JSON shape of the list/stats responses changes
+    private static final String ETAG_FORMAT = "r1";
+
+    @Value("${app.reviews.max-page-size:50}")
+    private int maxPageSize;
+
+    @Value("${app.reviews.batch-stats.max-products:100}")
+    private int batchStatsMaxProducts;
+
+    @Value("${app.reviews.batch-stats.max-age:60s}")
+    private Duration batchStatsMaxAge;
 
     @PostMapping
     public ResponseEntity<ApiResponse<ProductReview>> createReview(
@@ -40,7 +69,7 @@ public class ReviewController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<Page<ProductReview>>> getReviews(
+    public ResponseEntity<?> getReviews(
             HttpServletRequest httpServletRequest,
             @RequestParam(required = false) String productId,
             @RequestParam(required = false) Integer rating,
@@ -48,20 +77,130 @@ public class ReviewController {
             @RequestParam(required = false) Boolean isRead,
             @RequestParam(required = false) String productName,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Integer commentPreview,
+            WebRequest webRequest) {
 
+        checkPaging(page, size);
         String shop = getShop(httpServletRequest);
         String authHeader = httpServletRequest.getHeader("Authorization");
         boolean isAdmin = authHeader != null && authHeader.startsWith("Bearer ");
+        if (isAppProxy(httpServletRequest)) {
+            isAdmin = false;
+            status = true; // Storefront only sees published reviews
+        }
 
-        Page<ProductReview> reviews = reviewService.getReviews(shop, productId, rating, status, isRead,
-                productName, page, size, isAdmin);
+        long version = reviewVersionCache.get(shop, productId);
+        String etag = etag(version, isAdmin);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        if (!isAdmin && Boolean.TRUE.equals(status) && isRead == null && (productName == null || productName.isBlank())) {
+            // Storefront: serve the cached serialized response
+            byte[] body = responseCache.get(shop, productId, version,
+                    StorefrontResponseCache.Variant.reviews(rating, page, size, commentPreview),
+                    () -> ApiResponse.<PageResponse<ReviewItemResponse>>builder()
+                            .data(reviewService.getReviews(shop, productId, rating, true, null,
+                                    null, page, size, commentPreview, false))
+                            .build());
+            return conditional(etag).contentType(MediaType.APPLICATION_JSON).body(body);
+        }
 
-        return ResponseEntity.ok(ApiResponse.<Page<ProductReview>>builder()
+        PageResponse<ReviewItemResponse> reviews = reviewService.getReviews(shop, productId, rating, status, isRead,
+                productName, page, size, commentPreview, isAdmin);
+
+        return conditional(etag).body(ApiResponse.<PageResponse<ReviewItemResponse>>builder()
                 .data(reviews)
                 .build());
     }
 
+    /**
+     * Count-free listing for storefront "load more": hasNext instead of totals, optionally an approximate total.
+     */
+    @GetMapping("/slice")
+    public ResponseEntity<?> getReviewSlice(
+            HttpServletRequest httpServletRequest,
+            @RequestParam(required = false) String productId,
+            @RequestParam(required = false) Integer rating,
+            @RequestParam(required = false) Boolean status,
+            @RequestParam(required = false) Boolean isRead,
+            @RequestParam(required = false) String productName,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Integer commentPreview,
+            @RequestParam(defaultValue = "false") boolean approximateTotal,
+            WebRequest webRequest) {
+
+        checkPaging(page, size);
+        String shop = getShop(httpServletRequest);
+        String authHeader = httpServletRequest.getHeader("Authorization");
+        boolean isAdmin = authHeader != null && authHeader.startsWith("Bearer ");
+        if (isAppProxy(httpServletRequest)) {
+            isAdmin = false;
+            status = true; // Storefront only sees published reviews
+        }
+
+        long version = reviewVersionCache.get(shop, productId);
+        String etag = etag(version, isAdmin);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        if (!isAdmin && Boolean.TRUE.equals(status) && isRead == null && (productName == null || productName.isBlank())) {
+            byte[] body = responseCache.get(shop, productId, version,
+                    StorefrontResponseCache.Variant.slice(rating, page, size, commentPreview, approximateTotal),
+                    () -> ApiResponse.<SliceResponse<ReviewItemResponse>>builder()
+                            .data(reviewService.getReviewSlice(shop, productId, rating, true, null,
+                                    null, page, size, commentPreview, false, approximateTotal))
+                            .build());
+            return conditional(etag).contentType(MediaType.APPLICATION_JSON).body(body);
+        }
+
+        return conditional(etag).body(ApiResponse.<SliceResponse<ReviewItemResponse>>builder()
+                .data(reviewService.getReviewSlice(shop, productId, rating, status, isRead,
+                        productName, page, size, commentPreview, isAdmin, approximateTotal))
+                .build());
+    }
+
+    /**
+     * Admin event stream: one event per review change in the shop, with the updated stats.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamReviewEvents(HttpServletRequest httpServletRequest) {
+        if (isAppProxy(httpServletRequest)) {
+            throw new AppException(ErrorCode.UNAUTHORIZED);
+        }
+        return reviewStreamService.subscribe(getShop(httpServletRequest));
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<ApiResponse<CursorPageResponse<ReviewItemResponse>>> scrollReviews(
+            HttpServletRequest httpServletRequest,
+            @RequestParam(required = false) String productId,
+            @RequestParam(required = false) Integer rating,
+            @RequestParam(required = false) Boolean status,
+            @RequestParam(required = false) Boolean isRead,
+            @RequestParam(required = false) String productName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Integer commentPreview) {
+
+        checkPaging(0, size);
+        String shop = getShop(httpServletRequest);
+        String authHeader = httpServletRequest.getHeader("Authorization");
+        boolean isAdmin = authHeader != null && authHeader.startsWith("Bearer ");
+        if (isAppProxy(httpServletRequest)) {
+            isAdmin = false;
+            status = true; // Storefront only sees published reviews
+        }
+
+        return ResponseEntity.ok(ApiResponse.<CursorPageResponse<ReviewItemResponse>>builder()
+                .data(reviewService.scrollReviews(shop, productId, rating, status, isRead,
+                        productName, cursor, size, commentPreview, isAdmin))
+                .build());
+    }
+
     @PutMapping("/media/{id}/{status}")
     public ResponseEntity<ApiResponse> setStatusMedia(@PathVariable("id") Long id,
             @PathVariable("status") boolean status) {
@@ -70,20 +209,81 @@ public class ReviewController {
     }
 
     @GetMapping("/stats")
-    public ResponseEntity<ApiResponse<ReviewStatsResponse>> getStats(
+    public ResponseEntity<?> getStats(
             HttpServletRequest httpServletRequest,
             @RequestParam(required = false) String productId,
-            @RequestParam(required = false) Boolean status) {
+            @RequestParam(required = false) Boolean status,
+            WebRequest webRequest) {
         String shop = getShop(httpServletRequest);
 
         String authHeader = httpServletRequest.getHeader("Authorization");
-        Boolean finalStatus = status;
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            finalStatus = true; // Storefront stats only for published
+        boolean isStorefront = authHeader == null || !authHeader.startsWith("Bearer ") || isAppProxy(httpServletRequest);
+
+        long version = reviewVersionCache.get(shop, productId);
+        String etag = etag(version, !isStorefront);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        if (isStorefront) {
+            // Storefront stats only for published, served from the cached serialized response
+            byte[] body = responseCache.get(shop, productId, version, StorefrontResponseCache.Variant.stats(),
+                    () -> ApiResponse.<ReviewStatsResponse>builder()
+                            .data(reviewService.getReviewStats(shop, productId, true))
+                            .build());
+            return conditional(etag).contentType(MediaType.APPLICATION_JSON).body(body);
+        }
+
+        return conditional(etag).body(ApiResponse.<ReviewStatsResponse>builder()
+                .data(reviewService.getReviewStats(shop, productId, status))
+                .build());
+    }
+
+    /**
+     * Published stats of many products in one call, e.g. {@code ?productIds=1,2,3} for a collection page.
+     * Through the App Proxy the response is public so a CDN can cache it (the signed URL carries the shop);
+     * admin requests are authenticated by a header the URL does not reflect, so they are private.
+     * The ETag changes whenever any listed product changes.
+     */
+    @GetMapping("/stats/batch")
+    public ResponseEntity<ApiResponse<Map<String, ReviewStatsResponse>>> getBatchStats(
+            HttpServletRequest httpServletRequest,
+            @RequestParam String productIds,
+            WebRequest webRequest) {
+        String shop = getShop(httpServletRequest);
+        List<String> ids = Arrays.stream(productIds.split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .distinct()
+                .toList();
+        if (ids.isEmpty() || ids.size() > batchStatsMaxProducts) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+
+        // Versions only grow, so their sum changes whenever any of the products changes
+        long version = reviewVersionCache.getAll(shop, ids).values().stream().mapToLong(Long::longValue).sum();
+        String etag = "W/\"" + ETAG_FORMAT + "-b-" + version + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
         }
 
-        return ResponseEntity.ok(ApiResponse.<ReviewStatsResponse>builder()
-                .data(reviewService.getReviewStats(shop, productId, finalStatus))
+        CacheControl cacheControl = CacheControl.maxAge(batchStatsMaxAge);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(isAppProxy(httpServletRequest) ? cacheControl.cachePublic() : cacheControl.cachePrivate())
+                .body(ApiResponse.<Map<String, ReviewStatsResponse>>builder()
+                        .data(reviewService.getPublishedReviewStats(shop, ids))
+                        .build());
+    }
+
+    @GetMapping("/product-names")
+    public ResponseEntity<ApiResponse<List<String>>> suggestProductNames(
+            HttpServletRequest httpServletRequest,
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        String shop = getShop(httpServletRequest);
+        return ResponseEntity.ok(ApiResponse.<List<String>>builder()
+                .data(productNameSearchService.suggest(shop, prefix, Math.min(limit, 50)))
                 .build());
     }
 
@@ -124,6 +324,32 @@ public class ReviewController {
         return ResponseEntity.ok().body(ApiResponse.builder().message("Unpinned successfully").build());
     }
 
+    /**
+     * Weak ETag from the (shop, product) review version; admin and storefront representations differ.
+     */
+    private String etag(long version, boolean isAdmin) {
+        return "W/\"" + ETAG_FORMAT + (isAdmin ? "-a-" : "-s-") + version + "\"";
+    }
+
+    private ResponseEntity.BodyBuilder conditional(String etag) {
+        // no-cache: clients may store the response but must revalidate it with If-None-Match
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache());
+    }
+
+    private boolean isAppProxy(HttpServletRequest request) {
+        return Boolean.TRUE.equals(request.getAttribute("appProxy"));
+    }
+
+    /**
+     * Page parameters come straight from the (storefront) query string; every valid combination
+     * may end up as a cached response body, so the page size is capped.
+     */
+    private void checkPaging(int page, int size) {
+        if (page < 0 || size < 1 || size > maxPageSize) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+    }
+
     private String getShop(HttpServletRequest request) {
         String shop = (String) request.getAttribute("shop");
         if (shop == null) {
@@ -1,13 +1,12 @@
 package org.chatapp.customshopify.controller;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.chatapp.customshopify.entity.AppSettings;
-import org.chatapp.customshopify.repository.AppSettingsRepository;
 import org.chatapp.customshopify.service.ProductService;
+import org.chatapp.customshopify.service.SettingsService;
 import org.chatapp.customshopify.service.ShopifyAuthService;
+import org.chatapp.customshopify.util.ProductWebhookParser;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,8 +20,8 @@ public class WebhookController {
     
     private final ShopifyAuthService authService;
     private final ProductService productService;
-    private final AppSettingsRepository settingsRepository;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SettingsService settingsService;
+    private final ObjectMapper objectMapper;
     
     /**
      * Handle app uninstalled webhook
@@ -94,29 +93,14 @@ public class WebhookController {
         }
 
         try {
-            // Check if feature is enabled for this shop
-            AppSettings settings = settingsRepository.findByShop(shop)
-                    .orElse(new AppSettings(shop));
-            
-            if (!Boolean.TRUE.equals(settings.getDiscountFeatureEnabled())) {
+            // Check if feature is enabled for this shop (cached, no DB hit)
+            if (!settingsService.isDiscountFeatureEnabled(shop)) {
                 return ResponseEntity.ok().build(); // Feature disabled, ignore
             }
 
-            JsonNode root = objectMapper.readTree(payload);
-            String productId = "gid://shopify/Product/" + root.get("id").asText();
-            
-            // Get first variant prices
-            JsonNode variants = root.get("variants");
-            if (variants != null && variants.isArray() && variants.size() > 0) {
-                JsonNode firstVariant = variants.get(0);
-                String price = firstVariant.get("price").asText();
-                String compareAtPrice = firstVariant.hasNonNull("compare_at_price") 
-                        ? firstVariant.get("compare_at_price").asText() 
-                        : null;
-
-                if (compareAtPrice != null) {
-                    productService.handleProductUpdate(shop, productId, price, compareAtPrice);
-                }
+            ProductWebhookParser.ProductPrices prices = ProductWebhookParser.parse(objectMapper.getFactory(), payload);
+            if (prices.compareAtPrice() != null) {
+                productService.handleProductUpdate(shop, prices.productId(), prices.price(), prices.compareAtPrice());
             }
             
             return ResponseEntity.ok().build();
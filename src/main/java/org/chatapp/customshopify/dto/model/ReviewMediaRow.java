@@ -0,0 +1,21 @@
+package org.chatapp.customshopify.dto.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * review_media row with its review id (JPQL constructor projection).
+ */
+@Data
+@AllArgsConstructor
+public class ReviewMediaRow {
+    private Long reviewId;
+    private Long id;
+    private String mediaUrl;
+    private String mediaType;
+    private Long fileSize;
+    private Boolean isHidden;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,30 @@
+package org.chatapp.customshopify.dto.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.chatapp.customshopify.enums.HideReason;
+import org.chatapp.customshopify.enums.ReviewStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns of product_reviews needed by list responses (JPQL constructor projection).
+ */
+@Data
+@AllArgsConstructor
+public class ReviewRow {
+    private Long id;
+    private String productId;
+    private String productName;
+    private String customerId;
+    private String customerName;
+    private String comment;
+    private Boolean commentTruncated;
+    private Integer rating;
+    private ReviewStatus status;
+    private HideReason hideReason;
+    private String reply;
+    private Boolean isAnonymous;
+    private LocalDateTime createdAt;
+    private Boolean isPinned;
+}
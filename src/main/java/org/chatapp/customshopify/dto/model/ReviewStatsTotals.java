@@ -0,0 +1,23 @@
+package org.chatapp.customshopify.dto.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.chatapp.customshopify.enums.ReviewStatus;
+
+/**
+ * Summed stats of one status (JPQL constructor projection); SUM over no rated reviews is null.
+ */
+@Data
+@AllArgsConstructor
+public class ReviewStatsTotals {
+    private ReviewStatus status;
+    private Long totalReviews;
+    private Long ratingSum;
+    private Long ratedReviews;
+    private Long oneStar;
+    private Long twoStars;
+    private Long threeStars;
+    private Long fourStars;
+    private Long fiveStars;
+    private Long unmoderatedCount;
+}
@@ -0,0 +1,40 @@
+package org.chatapp.customshopify.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.chatapp.customshopify.enums.HideReason;
+import org.chatapp.customshopify.enums.ReviewStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Review in list responses; same field names as the ProductReview entity.
+ * commentTruncated is set when only a comment preview was requested.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewItemResponse {
+    private Long id;
+    private String shop;
+    private String productId;
+    private String productName;
+    private String customerId;
+    private String customerName;
+    private String comment;
+    private Boolean commentTruncated;
+    private Integer rating;
+    private ReviewStatus status;
+    private HideReason hideReason;
+    private String reply;
+    private Boolean isAnonymous;
+    private List<ReviewMediaResponse> media;
+    private LocalDateTime createdAt;
+    private Boolean isPinned;
+}
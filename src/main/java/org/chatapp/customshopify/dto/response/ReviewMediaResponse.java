@@ -0,0 +1,23 @@
+package org.chatapp.customshopify.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewMediaResponse {
+    private Long id;
+    private String mediaUrl;
+    private String mediaType;
+    private Long fileSize;
+    private Boolean isHidden;
+    private LocalDateTime createdAt;
+}
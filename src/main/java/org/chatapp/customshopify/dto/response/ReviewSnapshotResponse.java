@@ -0,0 +1,19 @@
+package org.chatapp.customshopify.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Static storefront snapshot of one product (or the whole shop): first published page and stats.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewSnapshotResponse {
+    private PageResponse<ReviewItemResponse> reviews;
+    private ReviewStatsResponse stats;
+    private long generatedAt;
+}
@@ -0,0 +1,24 @@
+package org.chatapp.customshopify.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload of the admin review stream. stats are the shop-wide admin stats after the change
+ * (same as GET /api/reviews/stats), so the UI can update its badges without another request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReviewStreamEvent {
+    // ReviewChangedEvent.Type, or CONNECTED / CHANGED (a change made on another node)
+    private String type;
+    private Long reviewId;
+    private String productId;
+    private ReviewStatsResponse stats;
+}
@@ -0,0 +1,25 @@
+package org.chatapp.customshopify.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page of results without an exact total: hasNext comes from fetching one row more than the page size.
+ * approximateTotal, when requested, is read from the review stats table and may briefly lag.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SliceResponse<T> {
+    private List<T> content;
+    private int number;
+    private int size;
+    private boolean first;
+    private boolean hasNext;
+    private Long approximateTotal;
+}
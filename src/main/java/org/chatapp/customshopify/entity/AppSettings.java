@@ -4,12 +4,17 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "app_settings")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "app-settings")
 public class AppSettings {
 
     @Id
@@ -25,9 +30,18 @@ public class AppSettings {
     @Column(nullable = false)
     private Boolean isAutoPublish;
 
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     public AppSettings(String shop) {
         this.shop = shop;
         this.discountFeatureEnabled = false;
         this.isAutoPublish = false;
     }
+
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
 }
@@ -0,0 +1,34 @@
+package org.chatapp.customshopify.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One trigram of a normalized product name, per shop. Maintained on review insert and used
+ * to find the product names containing an admin search term without scanning product_reviews.
+ */
+@Entity
+@Table(name = "product_name_trigrams", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_product_name_trigrams_shop_trigram_name",
+                columnNames = {"shop", "trigram", "product_name"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductNameTrigram {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String shop;
+
+    @Column(name = "product_name", nullable = false)
+    private String productName;
+
+    @Column(nullable = false, length = 3)
+    private String trigram;
+}
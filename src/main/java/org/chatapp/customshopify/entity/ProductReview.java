@@ -7,6 +7,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.chatapp.customshopify.enums.HideReason;
 import org.chatapp.customshopify.enums.ReviewStatus;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
@@ -14,13 +16,27 @@ import java.util.List;
 
 @Entity
 @Table(name = "product_reviews", indexes = {
-        @Index(name = "idx_product_reviews_shop", columnList = "shop"),
-        @Index(name = "idx_product_reviews_product_id", columnList = "product_id")
+        // Storefront: equality filters, then the pinned-first sort
+        @Index(name = "idx_product_reviews_keyset", columnList = "shop, product_id, status, is_pinned, created_at, id"),
+        @Index(name = "idx_product_reviews_product_rating_keyset",
+                columnList = "shop, product_id, status, rating, is_pinned, created_at, id"),
+        @Index(name = "idx_product_reviews_shop_keyset", columnList = "shop, status, is_pinned, created_at, id"),
+        @Index(name = "idx_product_reviews_shop_rating_keyset",
+                columnList = "shop, status, rating, is_pinned, created_at, id"),
+        // Admin: equality filters, then the newest-first sort; trailing columns only filter
+        @Index(name = "idx_product_reviews_admin_product",
+                columnList = "shop, product_id, created_at, id, status, hide_reason"),
+        @Index(name = "idx_product_reviews_admin_shop", columnList = "shop, created_at, id, status, hide_reason"),
+        @Index(name = "idx_product_reviews_admin_status", columnList = "shop, status, created_at, id"),
+        @Index(name = "idx_product_reviews_admin_rating", columnList = "shop, rating, created_at, id, status"),
+        @Index(name = "idx_product_reviews_admin_unread", columnList = "shop, hide_reason, created_at, id, status"),
+        @Index(name = "idx_product_reviews_product_name", columnList = "shop, product_name, created_at, id")
 })
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product-reviews")
 public class ProductReview {
 
     @Id
@@ -42,6 +58,10 @@ public class ProductReview {
     @Column(name = "customer_name")
     private String customerName;
 
+    // Name shown on the storefront: masked for anonymous reviews, set once in createReview
+    @Column(name = "display_name")
+    private String displayName;
+
     @Column(columnDefinition = "TEXT")
     private String comment;
 
@@ -62,14 +82,15 @@ public class ProductReview {
     @Column(name = "is_anonymous")
     private Boolean isAnonymous = false;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product-reviews.media")
     @OneToMany(mappedBy = "review", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ReviewMedia> media;
 
     @CreationTimestamp
-    @Column(name = "created_at", updatable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     @Builder.Default
-    @Column(name = "is_pinned")
+    @Column(name = "is_pinned", nullable = false)
     private Boolean isPinned = false;
 
 }
@@ -0,0 +1,69 @@
+package org.chatapp.customshopify.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.chatapp.customshopify.enums.ReviewStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rating histogram of a product's reviews in one status, maintained incrementally by ReviewService.
+ * Shop-wide stats are the sum of a shop's rows.
+ */
+@Entity
+@Table(name = "product_review_stats", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_product_review_stats_shop_product_status",
+                columnNames = {"shop", "product_id", "status"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductReviewStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String shop;
+
+    @Column(name = "product_id", nullable = false)
+    private String productId;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ReviewStatus status;
+
+    @Column(name = "total_reviews", nullable = false)
+    private Long totalReviews;
+
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum;
+
+    // Reviews with a rating; AVG ignores the others
+    @Column(name = "rated_reviews", nullable = false)
+    private Long ratedReviews;
+
+    @Column(name = "one_star", nullable = false)
+    private Long oneStar;
+
+    @Column(name = "two_stars", nullable = false)
+    private Long twoStars;
+
+    @Column(name = "three_stars", nullable = false)
+    private Long threeStars;
+
+    @Column(name = "four_stars", nullable = false)
+    private Long fourStars;
+
+    @Column(name = "five_stars", nullable = false)
+    private Long fiveStars;
+
+    @Column(name = "unmoderated_count", nullable = false)
+    private Long unmoderatedCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
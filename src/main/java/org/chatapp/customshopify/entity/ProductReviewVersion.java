@@ -0,0 +1,38 @@
+package org.chatapp.customshopify.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change counter per (shop, product), bumped by every review mutation.
+ * There is no shop-wide row: the shop's version is the sum of its product versions.
+ */
+@Entity
+@Table(name = "product_review_versions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_product_review_versions_shop_product", columnNames = {"shop", "product_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductReviewVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String shop;
+
+    @Column(name = "product_id", nullable = false)
+    private String productId;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -8,7 +8,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "shopify_sessions")
+@Table(name = "shopify_sessions", indexes = {
+        @Index(name = "idx_shopify_sessions_shop", columnList = "shop")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
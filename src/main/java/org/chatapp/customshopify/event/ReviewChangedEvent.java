@@ -0,0 +1,16 @@
+package org.chatapp.customshopify.event;
+
+/**
+ * Published by ReviewService whenever a review (or its media) changes in a way readers can see.
+ * Listeners that depend on committed data use @TransactionalEventListener(AFTER_COMMIT).
+ */
+public record ReviewChangedEvent(String shop, String productId, Long reviewId, Type type) {
+
+    public enum Type {
+        CREATED,
+        REPLIED,
+        STATUS_CHANGED,
+        PIN_CHANGED,
+        MEDIA_CHANGED
+    }
+}
@@ -15,6 +15,7 @@ public enum ErrorCode {
         INVALID_ACTION(HttpStatus.BAD_REQUEST, 9998, "Invalid action"),
         UNAUTHORIZED(HttpStatus.UNAUTHORIZED, 9997, "Unauthorized"),
         INVALID_REQUEST(HttpStatus.BAD_REQUEST, 9996, "Invalid request"),
+        TOO_MANY_STREAMS(HttpStatus.TOO_MANY_REQUESTS, 9995, "Too many open streams"),
         
         // Auth & Shopify
         UNAUTHENTICATED(HttpStatus.UNAUTHORIZED, 1001, "Unauthenticated"),
@@ -0,0 +1,85 @@
+package org.chatapp.customshopify.migration;
+
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import org.chatapp.customshopify.util.ProductNameNormalizer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills product_name_trigrams from the product names already in product_reviews.
+ * The trigrams come from ProductNameNormalizer, so this has to run in Java rather than SQL.
+ */
+public class ProductNameTrigramBackfill implements CustomTaskChange {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private int inserted;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try {
+            // Read everything first: MySQL can't run inserts on a connection with an open streaming result
+            List<String[]> names = new ArrayList<>();
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT DISTINCT shop, product_name FROM product_reviews WHERE product_name IS NOT NULL");
+                 ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    names.add(new String[]{rs.getString(1), rs.getString(2)});
+                }
+            }
+
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO product_name_trigrams (shop, product_name, trigram) VALUES (?, ?, ?) "
+                            + "ON DUPLICATE KEY UPDATE trigram = trigram")) {
+                int pending = 0;
+                for (String[] name : names) {
+                    for (String trigram : ProductNameNormalizer.trigrams(ProductNameNormalizer.normalize(name[1]))) {
+                        insert.setString(1, name[0]);
+                        insert.setString(2, name[1]);
+                        insert.setString(3, trigram);
+                        insert.addBatch();
+                        inserted++;
+                        if (++pending == BATCH_SIZE) {
+                            insert.executeBatch();
+                            pending = 0;
+                        }
+                    }
+                }
+                if (pending > 0) {
+                    insert.executeBatch();
+                }
+            }
+        } catch (SQLException e) {
+            throw new CustomChangeException("Product name trigram backfill failed", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Indexed " + inserted + " product name trigrams";
+    }
+
+    @Override
+    public void setUp() {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
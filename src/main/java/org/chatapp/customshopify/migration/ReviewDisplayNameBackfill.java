@@ -0,0 +1,91 @@
+package org.chatapp.customshopify.migration;
+
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import lombok.Setter;
+import org.chatapp.customshopify.util.AnonymousNameMasker;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Fills product_reviews.display_name for existing rows in id order, committing every chunk so a
+ * large table is neither locked nor rolled back as a whole. Rows already filled are skipped,
+ * so an interrupted run just continues on the next start.
+ */
+public class ReviewDisplayNameBackfill implements CustomTaskChange {
+
+    // Set from the changeset's chunkSize param
+    @Setter
+    private String chunkSize = "1000";
+
+    private long updated;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        int limit = Integer.parseInt(chunkSize);
+        long lastId = 0;
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, customer_name, is_anonymous FROM product_reviews "
+                        + "WHERE id > ? AND display_name IS NULL AND customer_name IS NOT NULL "
+                        + "ORDER BY id LIMIT " + limit);
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE product_reviews SET display_name = ? WHERE id = ?")) {
+            while (true) {
+                select.setLong(1, lastId);
+                int rows = 0;
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        lastId = rs.getLong(1);
+                        update.setString(1, AnonymousNameMasker.displayName(rs.getString(2), rs.getBoolean(3)));
+                        update.setLong(2, lastId);
+                        update.addBatch();
+                        rows++;
+                    }
+                }
+                if (rows == 0) {
+                    break;
+                }
+                update.executeBatch();
+                database.commit();
+                updated += rows;
+            }
+        } catch (SQLException | DatabaseException e) {
+            throw new CustomChangeException("Review display name backfill failed after id " + lastId, e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Filled display_name of " + updated + " reviews";
+    }
+
+    @Override
+    public void setUp() {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        ValidationErrors errors = new ValidationErrors();
+        try {
+            if (Integer.parseInt(chunkSize) < 1) {
+                errors.addError("chunkSize must be positive");
+            }
+        } catch (NumberFormatException e) {
+            errors.addError("chunkSize must be a number");
+        }
+        return errors;
+    }
+}
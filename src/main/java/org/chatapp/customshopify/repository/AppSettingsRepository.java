@@ -1,12 +1,24 @@
 package org.chatapp.customshopify.repository;
 
+import jakarta.persistence.QueryHint;
 import org.chatapp.customshopify.entity.AppSettings;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AppSettingsRepository extends JpaRepository<AppSettings, Long> {
+    // Query cache: repeat lookups resolve to the cached id and the app-settings region
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<AppSettings> findByShop(String shop);
+
+    @Query("SELECT s.shop FROM AppSettings s WHERE s.updatedAt > :since")
+    List<String> findShopsUpdatedSince(@Param("since") LocalDateTime since);
 }
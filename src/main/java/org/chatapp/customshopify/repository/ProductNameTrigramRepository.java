@@ -0,0 +1,42 @@
+package org.chatapp.customshopify.repository;
+
+import jakarta.persistence.QueryHint;
+import org.chatapp.customshopify.entity.ProductNameTrigram;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductNameTrigramRepository extends JpaRepository<ProductNameTrigram, Long> {
+
+    boolean existsByShopAndTrigramAndProductName(String shop, String trigram, String productName);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_name_trigrams"))
+    @Query(value = "INSERT INTO product_name_trigrams (shop, product_name, trigram) " +
+            "VALUES (:shop, :productName, :trigram) " +
+            "ON DUPLICATE KEY UPDATE trigram = trigram", nativeQuery = true)
+    void insertIfAbsent(@Param("shop") String shop,
+                        @Param("productName") String productName,
+                        @Param("trigram") String trigram);
+
+    /**
+     * Product names having every one of the given trigrams; candidates only, the caller checks the substring.
+     */
+    @Query(value = "SELECT product_name FROM product_name_trigrams " +
+            "WHERE shop = :shop AND trigram IN (:trigrams) " +
+            "GROUP BY product_name HAVING COUNT(*) = :count", nativeQuery = true)
+    List<String> findNamesWithAllTrigrams(@Param("shop") String shop,
+                                          @Param("trigrams") Collection<String> trigrams,
+                                          @Param("count") long count);
+
+    @Query("SELECT DISTINCT t.productName FROM ProductNameTrigram t WHERE t.shop = :shop")
+    List<String> findDistinctProductNames(@Param("shop") String shop);
+}
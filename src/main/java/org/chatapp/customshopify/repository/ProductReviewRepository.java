@@ -1,14 +1,12 @@
 package org.chatapp.customshopify.repository;
 
-import org.chatapp.customshopify.dto.response.ReviewStatsResponse;
+import jakarta.persistence.LockModeType;
+import org.chatapp.customshopify.dto.model.ReviewRow;
 import org.chatapp.customshopify.entity.ProductReview;
 import org.chatapp.customshopify.enums.ReviewStatus;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,7 +18,8 @@ import java.util.Optional;
 
 @Repository
 public interface ProductReviewRepository
-                extends JpaRepository<ProductReview, Long>, JpaSpecificationExecutor<ProductReview> {
+                extends JpaRepository<ProductReview, Long>, JpaSpecificationExecutor<ProductReview>,
+                ProductReviewRepositoryCustom {
 
         // @Query("""
         // SELECT r FROM ProductReview r
@@ -51,25 +50,6 @@ public interface ProductReviewRepository
                         @Param("productId") String productId,
                         @Param("statuses") Collection<ReviewStatus> statuses);
 
-        @Query("SELECT new org.chatapp.customshopify.dto.response.ReviewStatsResponse(" +
-                        "COUNT(r), " +
-                        "AVG(r.rating), " +
-                        "SUM(CASE WHEN r.rating = 1 THEN 1 ELSE 0 END), " +
-                        "SUM(CASE WHEN r.rating = 2 THEN 1 ELSE 0 END), " +
-                        "SUM(CASE WHEN r.rating = 3 THEN 1 ELSE 0 END), " +
-                        "SUM(CASE WHEN r.rating = 4 THEN 1 ELSE 0 END), " +
-                        "SUM(CASE WHEN r.rating = 5 THEN 1 ELSE 0 END), " +
-                        "SUM(CASE WHEN r.hideReason IS NULL AND r.status != org.chatapp.customshopify.enums.ReviewStatus.PUBLISHED THEN 1 ELSE 0 END)" +
-                        ") " +
-                        "FROM ProductReview r " +
-                        "WHERE r.shop = :shop " +
-                        "AND (:productId IS NULL OR r.productId = :productId) " +
-                        "AND r.status IN :statuses")
-        ReviewStatsResponse getReviewStats(
-                        @Param("shop") String shop,
-                        @Param("productId") String productId,
-                        @Param("statuses") Collection<ReviewStatus> statuses);
-
         @Query("SELECT AVG(r.rating) FROM ProductReview r WHERE r.shop = :shop " +
                         "AND (:productId IS NULL OR r.productId = :productId) " +
                         "AND ((:statuses) IS NULL OR r.status IN (:statuses)) ")
@@ -77,26 +57,48 @@ public interface ProductReviewRepository
                         @Param("productId") String productId,
                         @Param("statuses") Collection<ReviewStatus> statuses);
 
-        Optional<ProductReview> getProductReviewById(Long id);
+        /**
+         * Same as findById, which (unlike a derived query) is served from the second-level cache.
+         */
+        default Optional<ProductReview> getProductReviewById(Long id) {
+                return findById(id);
+        }
+
+        /**
+         * Reads and locks the row for a read-modify-write. Bypasses the second-level cache, which may hold
+         * a copy older than a write made on another node.
+         */
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
+        @Query("SELECT r FROM ProductReview r WHERE r.id = :id")
+        Optional<ProductReview> findForUpdateById(@Param("id") Long id);
+
+        /**
+         * List columns of the given reviews; the storefront gets the stored display name as customerName.
+         */
+        @Query("SELECT new org.chatapp.customshopify.dto.model.ReviewRow(" +
+                        "r.id, r.productId, r.productName, r.customerId, " +
+                        "CASE WHEN :storefront = true THEN r.displayName ELSE r.customerName END, " +
+                        "r.comment, false, r.rating, r.status, r.hideReason, r.reply, " +
+                        "r.isAnonymous, r.createdAt, r.isPinned) " +
+                        "FROM ProductReview r WHERE r.id IN :ids")
+        List<ReviewRow> findRowsByIdIn(@Param("ids") Collection<Long> ids,
+                        @Param("storefront") boolean storefront);
+
+        @Query("SELECT new org.chatapp.customshopify.dto.model.ReviewRow(" +
+                        "r.id, r.productId, r.productName, r.customerId, " +
+                        "CASE WHEN :storefront = true THEN r.displayName ELSE r.customerName END, " +
+                        "SUBSTRING(r.comment, 1, :previewLength), " +
+                        "CASE WHEN LENGTH(r.comment) > :previewLength THEN true ELSE false END, " +
+                        "r.rating, r.status, r.hideReason, r.reply, " +
+                        "r.isAnonymous, r.createdAt, r.isPinned) " +
+                        "FROM ProductReview r WHERE r.id IN :ids")
+        List<ReviewRow> findRowsWithCommentPreviewByIdIn(@Param("ids") Collection<Long> ids,
+                        @Param("previewLength") int previewLength,
+                        @Param("storefront") boolean storefront);
 
         List<ProductReview> findTop10ByShopOrderByCreatedAtDesc(String shop);
 
         @Modifying
         @Query("UPDATE ProductReview r SET r.isPinned = :isPinned WHERE r.id = :id")
         void updatePinnedStatus(@Param("id") Long id, @Param("isPinned") Boolean isPinned);
-
-        default Page<ProductReview> findAllSorted(Specification<ProductReview> spec, int page, int size,
-                        boolean isAdmin) {
-                Sort sort;
-                if (isAdmin) {
-                        // Admin: Newest first
-                        sort = Sort.by(Sort.Order.desc("createdAt"));
-                } else {
-                        // Storefront: Pinned first, then newest first
-                        sort = Sort.by(
-                                        Sort.Order.desc("isPinned").nullsLast(),
-                                        Sort.Order.desc("createdAt"));
-                }
-                return findAll(spec, PageRequest.of(page, size, sort));
-        }
 }
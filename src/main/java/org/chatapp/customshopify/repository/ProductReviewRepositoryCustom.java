@@ -0,0 +1,36 @@
+package org.chatapp.customshopify.repository;
+
+import org.chatapp.customshopify.entity.ProductReview;
+import org.chatapp.customshopify.util.ReviewCursor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ProductReviewRepositoryCustom {
+
+    /**
+     * Keyset page of review ids in listing order, starting after the cursor (or from the top if null).
+     * Storefront order is isPinned desc, createdAt desc, id desc; admin order ignores isPinned.
+     * Served from idx_product_reviews_keyset, so the cost does not depend on how deep the page is.
+     */
+    List<Long> findIdsAfter(Specification<ProductReview> spec, ReviewCursor cursor, boolean isAdmin, int limit);
+
+    /**
+     * Offset page of review ids in listing order. Limit and offset are applied by the database;
+     * any fetch join or distinct added by the specification is left out of this query.
+     */
+    List<Long> findIdPage(Specification<ProductReview> spec, boolean isAdmin, long offset, int limit);
+
+    /**
+     * findIdsAfter over the union of the specs, for a filter that splits into a few index ranges (one per
+     * product name): each spec is read in listing order with its own limit and the results are merged,
+     * so the union is never sorted as a whole.
+     */
+    List<Long> findIdsAfterMerged(List<Specification<ProductReview>> specs, ReviewCursor cursor, boolean isAdmin,
+                                  int limit);
+
+    /**
+     * findIdPage over the union of the specs, merged the same way; each spec reads offset + limit rows.
+     */
+    List<Long> findIdPageMerged(List<Specification<ProductReview>> specs, boolean isAdmin, long offset, int limit);
+}
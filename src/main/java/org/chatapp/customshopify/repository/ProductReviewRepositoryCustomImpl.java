@@ -0,0 +1,133 @@
+package org.chatapp.customshopify.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.chatapp.customshopify.entity.ProductReview;
+import org.chatapp.customshopify.util.ReviewCursor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class ProductReviewRepositoryCustomImpl implements ProductReviewRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findIdsAfter(Specification<ProductReview> spec, ReviewCursor cursor, boolean isAdmin, int limit) {
+        return entityManager.createQuery(idQuery(spec, cursor, isAdmin))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Long> findIdPage(Specification<ProductReview> spec, boolean isAdmin, long offset, int limit) {
+        return entityManager.createQuery(idQuery(spec, null, isAdmin))
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Long> findIdsAfterMerged(List<Specification<ProductReview>> specs, ReviewCursor cursor,
+                                         boolean isAdmin, int limit) {
+        return merge(specs, cursor, isAdmin, 0, limit);
+    }
+
+    @Override
+    public List<Long> findIdPageMerged(List<Specification<ProductReview>> specs, boolean isAdmin,
+                                       long offset, int limit) {
+        return merge(specs, null, isAdmin, offset, limit);
+    }
+
+    private List<Long> merge(List<Specification<ProductReview>> specs, ReviewCursor cursor, boolean isAdmin,
+                             long offset, int limit) {
+        int perSpec = Math.toIntExact(offset + limit);
+        List<Tuple> keys = new ArrayList<>();
+        for (Specification<ProductReview> spec : specs) {
+            keys.addAll(entityManager.createQuery(keyQuery(spec, cursor, isAdmin))
+                    .setMaxResults(perSpec)
+                    .getResultList());
+        }
+        Comparator<Tuple> order = Comparator.<Tuple, LocalDateTime>comparing(key -> key.get(2, LocalDateTime.class))
+                .thenComparing(key -> key.get(0, Long.class))
+                .reversed();
+        if (!isAdmin) {
+            order = Comparator.<Tuple, Boolean>comparing(key -> Boolean.TRUE.equals(key.get(1, Boolean.class)))
+                    .reversed()
+                    .thenComparing(order);
+        }
+        return keys.stream()
+                .sorted(order)
+                .skip(offset)
+                .limit(limit)
+                .map(key -> key.get(0, Long.class))
+                .toList();
+    }
+
+    private CriteriaQuery<Long> idQuery(Specification<ProductReview> spec, ReviewCursor cursor, boolean isAdmin) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<ProductReview> root = query.from(ProductReview.class);
+        query.select(root.get("id"));
+        return inListingOrder(query, root, spec, cursor, isAdmin);
+    }
+
+    // id, isPinned, createdAt: the id and its sort key
+    private CriteriaQuery<Tuple> keyQuery(Specification<ProductReview> spec, ReviewCursor cursor, boolean isAdmin) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<ProductReview> root = query.from(ProductReview.class);
+        query.multiselect(root.get("id"), root.get("isPinned"), root.get("createdAt"));
+        return inListingOrder(query, root, spec, cursor, isAdmin);
+    }
+
+    private <T> CriteriaQuery<T> inListingOrder(CriteriaQuery<T> query, Root<ProductReview> root,
+                                                Specification<ProductReview> spec, ReviewCursor cursor,
+                                                boolean isAdmin) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(spec.toPredicate(root, query, cb));
+        if (cursor != null) {
+            predicates.add(isAdmin ? after(cb, root, cursor) : pinnedFirstAfter(cb, root, cursor));
+        }
+
+        // Ids are unique already; DISTINCT would also clash with ORDER BY columns outside the select list
+        query.distinct(false)
+                .where(predicates.toArray(new Predicate[0]));
+        if (isAdmin) {
+            query.orderBy(cb.desc(root.get("createdAt")), cb.desc(root.get("id")));
+        } else {
+            query.orderBy(cb.desc(root.get("isPinned")), cb.desc(root.get("createdAt")), cb.desc(root.get("id")));
+        }
+        return query;
+    }
+
+    // (createdAt, id) < (cursor.createdAt, cursor.id)
+    private Predicate after(CriteriaBuilder cb, Root<ProductReview> root, ReviewCursor cursor) {
+        Path<LocalDateTime> createdAt = root.get("createdAt");
+        return cb.or(
+                cb.lessThan(createdAt, cursor.createdAt()),
+                cb.and(cb.equal(createdAt, cursor.createdAt()), cb.lessThan(root.get("id"), cursor.id())));
+    }
+
+    // (isPinned, createdAt, id) < cursor, spelled out per pinned value so the index range stays simple
+    private Predicate pinnedFirstAfter(CriteriaBuilder cb, Root<ProductReview> root, ReviewCursor cursor) {
+        Path<Boolean> isPinned = root.get("isPinned");
+        if (cursor.pinned()) {
+            return cb.or(
+                    cb.isFalse(isPinned),
+                    cb.and(cb.isTrue(isPinned), after(cb, root, cursor)));
+        }
+        return cb.and(cb.isFalse(isPinned), after(cb, root, cursor));
+    }
+}
@@ -0,0 +1,95 @@
+package org.chatapp.customshopify.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.chatapp.customshopify.dto.model.ReviewStatsTotals;
+import org.chatapp.customshopify.entity.ProductReviewStats;
+import org.chatapp.customshopify.enums.ReviewStatus;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductReviewStatsRepository extends JpaRepository<ProductReviewStats, Long> {
+
+    List<ProductReviewStats> findByShopAndProductIdAndStatusIn(String shop, String productId,
+                                                               Collection<ReviewStatus> statuses);
+
+    List<ProductReviewStats> findByShopAndStatusAndProductIdIn(String shop, ReviewStatus status,
+                                                               Collection<String> productIds);
+
+    /**
+     * Add the given deltas to the (shop, product, status) row, creating it if needed.
+     * Runs in the caller's transaction.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_review_stats"))
+    @Query(value = "INSERT INTO product_review_stats (shop, product_id, status, total_reviews, rating_sum, " +
+            "rated_reviews, one_star, two_stars, three_stars, four_stars, five_stars, unmoderated_count, updated_at) " +
+            "VALUES (:shop, :productId, :status, :total, :ratingSum, :rated, :one, :two, :three, :four, :five, " +
+            ":unmoderated, :now) " +
+            "ON DUPLICATE KEY UPDATE total_reviews = total_reviews + :total, rating_sum = rating_sum + :ratingSum, " +
+            "rated_reviews = rated_reviews + :rated, one_star = one_star + :one, two_stars = two_stars + :two, " +
+            "three_stars = three_stars + :three, four_stars = four_stars + :four, " +
+            "five_stars = five_stars + :five, unmoderated_count = unmoderated_count + :unmoderated, " +
+            "updated_at = :now", nativeQuery = true)
+    void addDelta(@Param("shop") String shop,
+                  @Param("productId") String productId,
+                  @Param("status") String status,
+                  @Param("total") long total,
+                  @Param("ratingSum") long ratingSum,
+                  @Param("rated") long rated,
+                  @Param("one") long one,
+                  @Param("two") long two,
+                  @Param("three") long three,
+                  @Param("four") long four,
+                  @Param("five") long five,
+                  @Param("unmoderated") long unmoderated,
+                  @Param("now") LocalDateTime now);
+
+    /**
+     * Shop-wide stats per status, summed over the shop's product rows.
+     */
+    @Query("SELECT new org.chatapp.customshopify.dto.model.ReviewStatsTotals(s.status, SUM(s.totalReviews), " +
+            "SUM(s.ratingSum), SUM(s.ratedReviews), SUM(s.oneStar), SUM(s.twoStars), SUM(s.threeStars), " +
+            "SUM(s.fourStars), SUM(s.fiveStars), SUM(s.unmoderatedCount)) " +
+            "FROM ProductReviewStats s WHERE s.shop = :shop AND s.status IN :statuses GROUP BY s.status")
+    List<ReviewStatsTotals> sumByShopAndStatusIn(@Param("shop") String shop,
+                                                 @Param("statuses") Collection<ReviewStatus> statuses);
+
+    /**
+     * The product's rows, locked until commit; concurrent deltas for the product wait behind them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ProductReviewStats> findForUpdateByShopAndProductId(String shop, String productId);
+
+    /**
+     * The product's stats per status, computed from product_reviews (plain, non-locking read).
+     */
+    @Query("SELECT new org.chatapp.customshopify.dto.model.ReviewStatsTotals(r.status, COUNT(r), SUM(r.rating), " +
+            "COUNT(r.rating), SUM(CASE WHEN r.rating = 1 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.rating = 2 THEN 1 ELSE 0 END), SUM(CASE WHEN r.rating = 3 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.rating = 4 THEN 1 ELSE 0 END), SUM(CASE WHEN r.rating = 5 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.hideReason IS NULL " +
+            "AND r.status <> org.chatapp.customshopify.enums.ReviewStatus.PUBLISHED THEN 1 ELSE 0 END)) " +
+            "FROM ProductReview r WHERE r.shop = :shop AND r.productId = :productId GROUP BY r.status")
+    List<ReviewStatsTotals> computeFromReviews(@Param("shop") String shop, @Param("productId") String productId);
+
+    @Query("SELECT DISTINCT r.productId FROM ProductReview r WHERE r.shop = :shop")
+    List<String> findReviewedProductIds(@Param("shop") String shop);
+
+    @Query("SELECT DISTINCT s.productId FROM ProductReviewStats s WHERE s.shop = :shop")
+    List<String> findProductIds(@Param("shop") String shop);
+
+    @Query("SELECT DISTINCT r.shop FROM ProductReview r")
+    List<String> findShopsWithReviews();
+}
@@ -0,0 +1,47 @@
+package org.chatapp.customshopify.repository;
+
+import jakarta.persistence.QueryHint;
+import org.chatapp.customshopify.entity.ProductReviewVersion;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProductReviewVersionRepository extends JpaRepository<ProductReviewVersion, Long> {
+
+    @Query("SELECT v.version FROM ProductReviewVersion v WHERE v.shop = :shop AND v.productId = :productId")
+    Optional<Long> findVersion(@Param("shop") String shop, @Param("productId") String productId);
+
+    /**
+     * Shop-wide version: the sum of the shop's product versions. Counters only grow, so any change
+     * to any product moves the sum.
+     */
+    @Query("SELECT COALESCE(SUM(v.version), 0) FROM ProductReviewVersion v WHERE v.shop = :shop")
+    long sumVersions(@Param("shop") String shop);
+
+    List<ProductReviewVersion> findByShop(String shop);
+
+    List<ProductReviewVersion> findByShopAndProductIdIn(String shop, Collection<String> productIds);
+
+    /**
+     * Increment the counter (creating it at 1). Runs in the caller's transaction.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_review_versions"))
+    @Query(value = "INSERT INTO product_review_versions (shop, product_id, version, updated_at) " +
+            "VALUES (:shop, :productId, 1, :now) " +
+            "ON DUPLICATE KEY UPDATE version = version + 1, updated_at = :now", nativeQuery = true)
+    void bump(@Param("shop") String shop, @Param("productId") String productId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT v FROM ProductReviewVersion v WHERE v.updatedAt > :since")
+    List<ProductReviewVersion> findUpdatedSince(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,160 @@
+package org.chatapp.customshopify.repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.chatapp.customshopify.dto.response.ReviewItemResponse;
+import org.chatapp.customshopify.dto.response.ReviewMediaResponse;
+import org.chatapp.customshopify.dto.response.ReviewStatsResponse;
+import org.chatapp.customshopify.enums.HideReason;
+import org.chatapp.customshopify.enums.ReviewStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Non-blocking (R2DBC) queries for the storefront read path.
+ * Only PUBLISHED reviews and visible media are ever returned.
+ * Writes stay on JPA (ProductReviewRepository).
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveReviewRepository {
+
+    // Storefront only: the stored display name stands in for customer_name
+    private static final String REVIEW_COLUMNS = "id, shop, product_id, product_name, customer_id, "
+            + "display_name AS customer_name, "
+            + "comment, rating, status, hide_reason, reply, is_anonymous, created_at, is_pinned";
+
+    private final DatabaseClient databaseClient;
+
+    public record Filter(String shop, String productId, Integer rating, String productName) {
+    }
+
+    /**
+     * Storefront order: pinned first, then newest first (same as ProductReviewRepositoryCustom.findIdPage).
+     */
+    public Flux<ReviewItemResponse> findPublished(Filter filter, int page, int size) {
+        String sql = "SELECT " + REVIEW_COLUMNS + " FROM product_reviews" + where(filter)
+                + " ORDER BY is_pinned IS NULL, is_pinned DESC, created_at DESC, id DESC"
+                + " LIMIT :limit OFFSET :offset";
+        return bind(databaseClient.sql(sql), filter)
+                .bind("limit", size)
+                .bind("offset", (long) page * size)
+                .map(ReactiveReviewRepository::toReview)
+                .all();
+    }
+
+    public Mono<Long> countPublished(Filter filter) {
+        return bind(databaseClient.sql("SELECT COUNT(*) AS total FROM product_reviews" + where(filter)), filter)
+                .map(row -> toLong(row.get("total")))
+                .one();
+    }
+
+    public Flux<MediaRow> findVisibleMedia(Collection<Long> reviewIds) {
+        return databaseClient.sql("SELECT id, review_id, media_url, media_type, file_size, is_hidden, created_at "
+                        + "FROM review_media WHERE review_id IN (:reviewIds) "
+                        + "AND (is_hidden IS NULL OR is_hidden = FALSE) ORDER BY id")
+                .bind("reviewIds", reviewIds)
+                .map(row -> new MediaRow(row.get("review_id", Long.class), ReviewMediaResponse.builder()
+                        .id(row.get("id", Long.class))
+                        .mediaUrl(row.get("media_url", String.class))
+                        .mediaType(row.get("media_type", String.class))
+                        .fileSize(row.get("file_size", Long.class))
+                        .isHidden(row.get("is_hidden", Boolean.class))
+                        .createdAt(row.get("created_at", LocalDateTime.class))
+                        .build()))
+                .all();
+    }
+
+    public record MediaRow(Long reviewId, ReviewMediaResponse media) {
+    }
+
+    /**
+     * PUBLISHED stats from product_review_stats; productId null sums the shop's product rows.
+     */
+    public Mono<ReviewStatsResponse> getPublishedStats(String shop, String productId) {
+        String sql = "SELECT SUM(total_reviews) AS total_reviews, SUM(rating_sum) AS rating_sum, "
+                + "SUM(rated_reviews) AS rated_reviews, SUM(one_star) AS one_star, SUM(two_stars) AS two_stars, "
+                + "SUM(three_stars) AS three_stars, SUM(four_stars) AS four_stars, SUM(five_stars) AS five_stars "
+                + "FROM product_review_stats WHERE shop = :shop AND status = '" + ReviewStatus.PUBLISHED.name() + "'"
+                + (productId != null ? " AND product_id = :productId" : "");
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql).bind("shop", shop);
+        if (productId != null) {
+            spec = spec.bind("productId", productId);
+        }
+        return spec
+                .map(row -> {
+                    long rated = toLong(row.get("rated_reviews"));
+                    return ReviewStatsResponse.builder()
+                            .totalReviews(toLong(row.get("total_reviews")))
+                            .averageRating(rated > 0 ? (double) toLong(row.get("rating_sum")) / rated : null)
+                            .oneStar(toLong(row.get("one_star")))
+                            .twoStars(toLong(row.get("two_stars")))
+                            .threeStars(toLong(row.get("three_stars")))
+                            .fourStars(toLong(row.get("four_stars")))
+                            .fiveStars(toLong(row.get("five_stars")))
+                            .unModeratedCount(0L)
+                            .build();
+                })
+                .one();
+    }
+
+    private static String where(Filter filter) {
+        StringBuilder where = new StringBuilder(" WHERE shop = :shop AND status = '")
+                .append(ReviewStatus.PUBLISHED.name()).append('\'');
+        if (filter.productId() != null) {
+            where.append(" AND product_id = :productId");
+        }
+        if (filter.rating() != null) {
+            where.append(" AND rating = :rating");
+        }
+        if (filter.productName() != null) {
+            where.append(" AND LOWER(product_name) LIKE :productName");
+        }
+        return where.toString();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, Filter filter) {
+        spec = spec.bind("shop", filter.shop());
+        if (filter.productId() != null) {
+            spec = spec.bind("productId", filter.productId());
+        }
+        if (filter.rating() != null) {
+            spec = spec.bind("rating", filter.rating());
+        }
+        if (filter.productName() != null) {
+            spec = spec.bind("productName", "%" + filter.productName().toLowerCase() + "%");
+        }
+        return spec;
+    }
+
+    private static ReviewItemResponse toReview(Readable row) {
+        String hideReason = row.get("hide_reason", String.class);
+        return ReviewItemResponse.builder()
+                .id(row.get("id", Long.class))
+                .shop(row.get("shop", String.class))
+                .productId(row.get("product_id", String.class))
+                .productName(row.get("product_name", String.class))
+                .customerId(row.get("customer_id", String.class))
+                .customerName(row.get("customer_name", String.class))
+                .comment(row.get("comment", String.class))
+                .rating(row.get("rating", Integer.class))
+                .status(ReviewStatus.valueOf(row.get("status", String.class)))
+                .hideReason(hideReason != null ? HideReason.valueOf(hideReason) : null)
+                .reply(row.get("reply", String.class))
+                .isAnonymous(row.get("is_anonymous", Boolean.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .isPinned(row.get("is_pinned", Boolean.class))
+                .build();
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number n ? n.longValue() : 0L;
+    }
+}
@@ -1,5 +1,7 @@
 package org.chatapp.customshopify.repository;
 
+import org.chatapp.customshopify.dto.model.ReviewMediaRow;
+import org.chatapp.customshopify.entity.ProductReview;
 import org.chatapp.customshopify.entity.ReviewMedia;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -7,9 +9,24 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ReviewMediaRepository extends JpaRepository<ReviewMedia, Long> {
     @Modifying
     @Query("UPDATE ReviewMedia r SET r.isHidden = :isHidden WHERE r.id = :id")
     void updateStatus(@Param("id") Long id, @Param("isHidden") Boolean status);
+
+    @Query("SELECT m.review FROM ReviewMedia m WHERE m.id = :id")
+    Optional<ProductReview> findReviewByMediaId(@Param("id") Long id);
+
+    @Query("SELECT new org.chatapp.customshopify.dto.model.ReviewMediaRow(" +
+            "m.review.id, m.id, m.mediaUrl, m.mediaType, m.fileSize, m.isHidden, m.createdAt) " +
+            "FROM ReviewMedia m WHERE m.review.id IN :reviewIds " +
+            "AND (:includeHidden = true OR m.isHidden IS NULL OR m.isHidden = false) " +
+            "ORDER BY m.id")
+    List<ReviewMediaRow> findRowsByReviewIdIn(@Param("reviewIds") Collection<Long> reviewIds,
+                                              @Param("includeHidden") boolean includeHidden);
 }
@@ -0,0 +1,86 @@
+package org.chatapp.customshopify.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.chatapp.customshopify.config.ShopifyConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Verifies the {@code signature} query parameter Shopify adds to App Proxy requests.
+ * Pure local HMAC check - no database lookup and no call to Shopify.
+ *
+ * @see <a href="https://shopify.dev/docs/apps/build/online-store/display-dynamic-data#calculate-a-digital-signature">App Proxy signature</a>
+ */
+@Service
+@Slf4j
+public class AppProxySignatureVerifier {
+
+    private final SecretKeySpec secretKey;
+    private final long maxAgeSeconds;
+
+    public AppProxySignatureVerifier(ShopifyConfig shopifyConfig,
+                                     @Value("${app.proxy.max-age:5m}") Duration maxAge) {
+        this.secretKey = new SecretKeySpec(
+                shopifyConfig.getApiSecret().getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.maxAgeSeconds = maxAge.toSeconds();
+    }
+
+    /**
+     * @param params request parameters as returned by {@code ServletRequest#getParameterMap()}
+     * @return true if the signature matches and the timestamp is recent
+     */
+    public boolean verify(Map<String, String[]> params) {
+        String[] signature = params.get("signature");
+        if (signature == null || signature.length != 1 || signature[0].isEmpty()) {
+            return false;
+        }
+
+        if (!isFresh(params.get("timestamp"))) {
+            log.warn("❌ App Proxy request with missing or stale timestamp");
+            return false;
+        }
+
+        // Sorted "key=value" pairs, multiple values joined by ",", no separator between pairs
+        StringBuilder message = new StringBuilder();
+        new TreeMap<>(params).forEach((key, values) -> {
+            if (!"signature".equals(key)) {
+                message.append(key).append('=').append(String.join(",", values));
+            }
+        });
+
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(secretKey);
+            byte[] expected = mac.doFinal(message.toString().getBytes(StandardCharsets.UTF_8));
+            byte[] provided = HexFormat.of().parseHex(signature[0]);
+            return MessageDigest.isEqual(expected, provided);
+        } catch (IllegalArgumentException e) {
+            // Not a hex string
+            return false;
+        } catch (Exception e) {
+            log.error("App Proxy signature validation error: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean isFresh(String[] timestamp) {
+        if (timestamp == null || timestamp.length != 1) {
+            return false;
+        }
+        try {
+            long age = System.currentTimeMillis() / 1000 - Long.parseLong(timestamp[0]);
+            return Math.abs(age) <= maxAgeSeconds;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
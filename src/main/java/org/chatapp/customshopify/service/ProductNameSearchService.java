@@ -0,0 +1,76 @@
+package org.chatapp.customshopify.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.chatapp.customshopify.cache.ProductNameIndex;
+import org.chatapp.customshopify.repository.ProductNameTrigramRepository;
+import org.chatapp.customshopify.util.ProductNameNormalizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Product-name search for the admin review list. A term is resolved to the matching product
+ * names first through the trigram table, and the review query then reads each name's
+ * (shop, product_name, created_at, id) range in order instead of LIKE '%term%'.
+ * <p>
+ * A term that matches many names (or has fewer than 3 characters, which the trigram table cannot
+ * answer and which match broadly anyway) keeps the LIKE filter: matches are dense then, so walking
+ * the shop's reviews in listing order fills a page quickly, and it always sees every node's names.
+ */
+@Service
+@Slf4j
+public class ProductNameSearchService {
+
+    private final ProductNameTrigramRepository trigramRepository;
+    private final ProductNameIndex productNameIndex;
+    private final int maxMatches;
+
+    public ProductNameSearchService(ProductNameTrigramRepository trigramRepository,
+                                    ProductNameIndex productNameIndex,
+                                    @Value("${app.search.product-name.max-matches:20}") int maxMatches) {
+        this.trigramRepository = trigramRepository;
+        this.productNameIndex = productNameIndex;
+        this.maxMatches = maxMatches;
+    }
+
+    /**
+     * @return the shop's product names containing the term (possibly empty), or null when a LIKE filter
+     * is cheaper: the term is shorter than 3 characters or matches more than
+     * app.search.product-name.max-matches names (one index range is read per name)
+     */
+    public List<String> findMatchingNames(String shop, String term) {
+        String normalized = ProductNameNormalizer.normalize(term);
+        if (normalized.length() < 3) {
+            return null;
+        }
+        Set<String> trigrams = ProductNameNormalizer.trigrams(normalized);
+        List<String> matches = trigramRepository.findNamesWithAllTrigrams(shop, trigrams, trigrams.size()).stream()
+                .filter(name -> ProductNameNormalizer.normalize(name).contains(normalized))
+                .toList();
+        return matches.size() > maxMatches ? null : matches;
+    }
+
+    public List<String> suggest(String shop, String prefix, int limit) {
+        return productNameIndex.suggest(shop, prefix, limit);
+    }
+
+    /**
+     * Index a review's product name, in the caller's transaction. Only the first review of a name writes.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void indexName(String shop, String productName) {
+        String normalized = ProductNameNormalizer.normalize(productName);
+        if (normalized.isEmpty() || productNameIndex.contains(shop, productName)) {
+            return;
+        }
+        Set<String> trigrams = ProductNameNormalizer.trigrams(normalized);
+        if (!trigramRepository.existsByShopAndTrigramAndProductName(shop, trigrams.iterator().next(), productName)) {
+            trigrams.forEach(trigram -> trigramRepository.insertIfAbsent(shop, productName, trigram));
+        }
+        productNameIndex.add(shop, productName);
+    }
+}
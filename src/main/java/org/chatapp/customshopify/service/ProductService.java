@@ -2,11 +2,11 @@ package org.chatapp.customshopify.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.chatapp.customshopify.cache.ShopifySessionCache;
 import org.chatapp.customshopify.client.ShopifyGraphQLClient;
 import org.chatapp.customshopify.config.ShopifyConfig;
 import org.chatapp.customshopify.entity.ShopifySession;
 import org.chatapp.customshopify.repository.AppSettingsRepository;
-import org.chatapp.customshopify.repository.ShopifySessionRepository;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -25,7 +25,7 @@ import org.chatapp.customshopify.dto.response.ShopifyGraphQLResponses;
 public class ProductService {
 
     private final AppSettingsRepository settingsRepository;
-    private final ShopifySessionRepository sessionRepository;
+    private final ShopifySessionCache sessionCache;
     private final ShopifyConfig shopifyConfig;
     private final ShopifyGraphQLClient graphQLClient;
 
@@ -320,12 +320,12 @@ public class ProductService {
     }
 
     public void handleProductUpdate(String shop, String productId, String priceStr, String compareAtPriceStr) {
-        List<ShopifySession> sessions = sessionRepository.findByShop(shop);
-        if (sessions.isEmpty()) {
+        Optional<ShopifySession> session = sessionCache.get(shop);
+        if (session.isEmpty()) {
             log.warn("No session found for shop: {}", shop);
             return;
         }
-        String accessToken = sessions.get(0).getAccessToken();
+        String accessToken = session.get().getAccessToken();
 
         double discountPercent = 0.0;
 
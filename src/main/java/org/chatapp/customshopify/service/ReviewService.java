@@ -5,22 +5,40 @@ import lombok.extern.slf4j.Slf4j;
 import org.chatapp.customshopify.client.CaptchaClient;
 import org.chatapp.customshopify.dto.request.CreateReviewRequest;
 import org.chatapp.customshopify.dto.request.UpdateReviewStatusRequest;
+import org.chatapp.customshopify.dto.model.ReviewMediaRow;
+import org.chatapp.customshopify.dto.model.ReviewRow;
+import org.chatapp.customshopify.dto.response.CursorPageResponse;
+import org.chatapp.customshopify.dto.response.PageResponse;
+import org.chatapp.customshopify.dto.response.ReviewItemResponse;
+import org.chatapp.customshopify.dto.response.ReviewMediaResponse;
 import org.chatapp.customshopify.dto.response.ReviewStatsResponse;
+import org.chatapp.customshopify.dto.response.SliceResponse;
 import org.chatapp.customshopify.entity.ProductReview;
 import org.chatapp.customshopify.entity.ReviewMedia;
+import org.chatapp.customshopify.enums.HideReason;
 import org.chatapp.customshopify.enums.ReviewStatus;
+import org.chatapp.customshopify.event.ReviewChangedEvent;
 import org.chatapp.customshopify.exception.AppException;
 import org.chatapp.customshopify.exception.ErrorCode;
 import org.chatapp.customshopify.repository.ProductReviewRepository;
+import org.chatapp.customshopify.repository.ProductReviewVersionRepository;
 import org.chatapp.customshopify.repository.ReviewMediaRepository;
 import org.chatapp.customshopify.specification.ProductReviewSpecification;
-import org.springframework.data.domain.Page;
+import org.chatapp.customshopify.util.AnonymousNameMasker;
+import org.chatapp.customshopify.util.ReviewCursor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -29,6 +47,10 @@ public class ReviewService {
     private final ReviewMediaRepository reviewMediaRepository;
     private final ProductReviewRepository reviewRepository;
     private final CaptchaClient captchaClient;
+    private final ProductReviewVersionRepository versionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReviewStatsService reviewStatsService;
+    private final ProductNameSearchService productNameSearchService;
 
     @Transactional
     public ProductReview createReview(String shop, CreateReviewRequest request) {
@@ -42,12 +64,14 @@ public class ReviewService {
         if (request.getReplyTo() != null) {
 
             // Handle Direct Reply: Update parent review's reply field
-            ProductReview parent = reviewRepository.getProductReviewById(request.getReplyTo())
+            ProductReview parent = reviewRepository.findForUpdateById(request.getReplyTo())
                     .orElseThrow(() -> new AppException(ErrorCode.INVALID_REQUEST));
 
             parent.setReply(request.getComment());
 
-            return reviewRepository.save(parent);
+            ProductReview saved = reviewRepository.save(parent);
+            recordChange(saved, ReviewChangedEvent.Type.REPLIED);
+            return saved;
         }
 
         // New Review submission
@@ -55,15 +79,17 @@ public class ReviewService {
             throw new AppException(ErrorCode.INVALID_REQUEST);
         }
 
+        boolean anonymous = Boolean.TRUE.equals(request.getIsAnonymous());
         ProductReview review = ProductReview.builder()
                 .shop(shop)
                 .productId(request.getProductId())
                 .productName(request.getProductName())
                 .customerId(request.getCustomerId())
                 .customerName(request.getCustomerName())
+                .displayName(AnonymousNameMasker.displayName(request.getCustomerName(), anonymous))
                 .comment(request.getComment())
                 .rating(request.getRating())
-                .isAnonymous(request.getIsAnonymous() != null ? request.getIsAnonymous() : false)
+                .isAnonymous(anonymous)
                 .status(ReviewStatus.HIDDEN)
                 .build();
 
@@ -79,59 +105,271 @@ public class ReviewService {
             }
         }
         review.setMedia(mediaList);
-        return reviewRepository.save(review);
+        ProductReview saved = reviewRepository.save(review);
+        productNameSearchService.indexName(shop, saved.getProductName());
+        reviewStatsService.recordCreated(shop, saved.getProductId(), saved.getRating(),
+                saved.getStatus(), saved.getHideReason());
+        recordChange(saved, ReviewChangedEvent.Type.CREATED);
+        return saved;
     }
 
-    public Page<ProductReview> getReviews(String shop, String productId, Integer rating, Boolean status, Boolean isRead,
-            String productName, int page, int size, boolean isAdmin) {
+    @Transactional(readOnly = true)
+    public PageResponse<ReviewItemResponse> getReviews(String shop, String productId, Integer rating, Boolean status,
+            Boolean isRead, String productName, int page, int size, Integer commentPreview, boolean isAdmin) {
 
-        List<ReviewStatus> statusList = new ArrayList<>();
-        if (Boolean.TRUE.equals(status)) {
-            // Storefront behavior: Only PUBLISHED
-            statusList.add(ReviewStatus.PUBLISHED);
-        } else {
-            // Admin behavior
-            if (status == null) {
-                statusList.add(ReviewStatus.PUBLISHED);
-                statusList.add(ReviewStatus.HIDDEN); // != ARCHIVED
-            } else {
-                statusList.add(ReviewStatus.HIDDEN);
-            }
+        if (page < 0 || size < 1) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+        if (productName != null && productName.isBlank()) {
+            productName = null;
+        }
+        List<String> productNames = productName != null
+                ? productNameSearchService.findMatchingNames(shop, productName)
+                : null;
+        if (productNames != null && productNames.isEmpty()) {
+            return PageResponse.of(new ArrayList<>(), page, size, 0);
+        }
+
+        // showHiddenMedia = true: only filters here, media are loaded per page below
+        List<ReviewStatus> statuses = resolveStatuses(status);
+        Specification<ProductReview> spec = ProductReviewSpecification.filter(
+                shop,
+                productId,
+                rating,
+                statuses,
+                isRead,
+                productName,
+                productNames,
+                true);
+
+        long offset = (long) page * size;
+        List<Long> ids = productNames != null && productNames.size() > 1
+                ? reviewRepository.findIdPageMerged(perName(productNames, names -> ProductReviewSpecification
+                        .filter(shop, productId, rating, statuses, isRead, null, names, true)), isAdmin, offset, size)
+                : reviewRepository.findIdPage(spec, isAdmin, offset, size);
+        // Last page: the total is known without a COUNT
+        long total = (!ids.isEmpty() && ids.size() < size) || (ids.isEmpty() && page == 0)
+                ? offset + ids.size()
+                : reviewRepository.count(spec);
+
+        return PageResponse.of(toItems(ids, Boolean.TRUE.equals(status), commentPreview), page, size, total);
+    }
+
+    /**
+     * Count-free variant of getReviews for "load more": fetches size + 1 ids to tell whether a next page
+     * exists instead of running a COUNT with the same filters. With approximateTotal, the total comes from
+     * the stats table (only for filters the stats can answer: product, rating and status).
+     */
+    @Transactional(readOnly = true)
+    public SliceResponse<ReviewItemResponse> getReviewSlice(String shop, String productId, Integer rating,
+            Boolean status, Boolean isRead, String productName, int page, int size, Integer commentPreview,
+            boolean isAdmin, boolean approximateTotal) {
+
+        if (page < 0 || size < 1) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
         }
         if (productName != null && productName.isBlank()) {
             productName = null;
         }
+        List<String> productNames = productName != null
+                ? productNameSearchService.findMatchingNames(shop, productName)
+                : null;
+        if (productNames != null && productNames.isEmpty()) {
+            return SliceResponse.<ReviewItemResponse>builder()
+                    .content(new ArrayList<>())
+                    .number(page)
+                    .size(size)
+                    .first(page == 0)
+                    .hasNext(false)
+                    .approximateTotal(approximateTotal ? 0L : null)
+                    .build();
+        }
 
+        List<ReviewStatus> statuses = resolveStatuses(status);
         Specification<ProductReview> spec = ProductReviewSpecification.filter(
                 shop,
                 productId,
                 rating,
-                statusList,
+                statuses,
                 isRead,
                 productName,
-                isAdmin);
+                productNames,
+                true);
+
+        List<Long> ids = productNames != null && productNames.size() > 1
+                ? reviewRepository.findIdPageMerged(perName(productNames, names -> ProductReviewSpecification
+                        .filter(shop, productId, rating, statuses, isRead, null, names, true)),
+                        isAdmin, (long) page * size, size + 1)
+                : reviewRepository.findIdPage(spec, isAdmin, (long) page * size, size + 1);
+        boolean hasNext = ids.size() > size;
+        if (hasNext) {
+            ids = ids.subList(0, size);
+        }
+
+        Long total = null;
+        if (approximateTotal && isRead == null && productName == null) {
+            total = countOf(reviewStatsService.getStats(shop, productId, statuses), rating);
+        }
+        return SliceResponse.<ReviewItemResponse>builder()
+                .content(toItems(ids, Boolean.TRUE.equals(status), commentPreview))
+                .number(page)
+                .size(size)
+                .first(page == 0)
+                .hasNext(hasNext)
+                .approximateTotal(total)
+                .build();
+    }
+
+    private static Long countOf(ReviewStatsResponse stats, Integer rating) {
+        if (rating == null) {
+            return stats.getTotalReviews();
+        }
+        return switch (rating) {
+            case 1 -> stats.getOneStar();
+            case 2 -> stats.getTwoStars();
+            case 3 -> stats.getThreeStars();
+            case 4 -> stats.getFourStars();
+            case 5 -> stats.getFiveStars();
+            default -> 0L;
+        };
+    }
+
+    /**
+     * Cursor (keyset) variant of getReviews: constant cost for any page depth and no COUNT query.
+     * Pass the returned nextCursor to fetch the following page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ReviewItemResponse> scrollReviews(String shop, String productId, Integer rating,
+            Boolean status, Boolean isRead, String productName, String cursor, int size, Integer commentPreview,
+            boolean isAdmin) {
+
+        if (size < 1) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+        if (productName != null && productName.isBlank()) {
+            productName = null;
+        }
+        List<String> productNames = productName != null
+                ? productNameSearchService.findMatchingNames(shop, productName)
+                : null;
+        if (productNames != null && productNames.isEmpty()) {
+            return CursorPageResponse.<ReviewItemResponse>builder()
+                    .content(new ArrayList<>())
+                    .size(size)
+                    .hasNext(false)
+                    .build();
+        }
 
-        Page<ProductReview> reviewPage = reviewRepository.findAllSorted(spec, page, size, isAdmin);
-        if (Boolean.TRUE.equals(status))
-            reviewPage.forEach(review -> {
-                if (ReviewStatus.PUBLISHED.equals(review.getStatus())
-                        && Boolean.TRUE.equals(review.getIsAnonymous())) {
+        List<ReviewStatus> statuses = resolveStatuses(status);
+        Specification<ProductReview> spec = ProductReviewSpecification.filter(
+                shop,
+                productId,
+                rating,
+                statuses,
+                isRead,
+                productName,
+                productNames,
+                true);
+
+        ReviewCursor after = cursor != null && !cursor.isBlank() ? ReviewCursor.decode(cursor) : null;
+        List<Long> ids = productNames != null && productNames.size() > 1
+                ? reviewRepository.findIdsAfterMerged(perName(productNames, names -> ProductReviewSpecification
+                        .filter(shop, productId, rating, statuses, isRead, null, names, true)), after, isAdmin, size + 1)
+                : reviewRepository.findIdsAfter(spec, after, isAdmin, size + 1);
+        boolean hasNext = ids.size() > size;
+        if (hasNext) {
+            ids = ids.subList(0, size);
+        }
 
-                    review.setCustomerName(transformToAnonymous(review.getCustomerName()));
+        List<ReviewItemResponse> reviews = toItems(ids, Boolean.TRUE.equals(status), commentPreview);
+        return CursorPageResponse.<ReviewItemResponse>builder()
+                .content(reviews)
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? ReviewCursor.of(reviews.get(reviews.size() - 1)).encode() : null)
+                .build();
+    }
 
-                }
+    /**
+     * One filter per matched product name, each served in listing order by idx_product_reviews_product_name;
+     * the repository merges them instead of sorting every review of every name.
+     */
+    private static List<Specification<ProductReview>> perName(List<String> productNames,
+            Function<List<String>, Specification<ProductReview>> filter) {
+        return productNames.stream().map(name -> filter.apply(List.of(name))).toList();
+    }
 
-                // Filter hidden media for storefront
-                if (review.getMedia() != null) {
-                    review.setMedia(review.getMedia().stream()
-                            .filter(m -> !Boolean.TRUE.equals(m.getIsHidden()))
-                            .collect(java.util.stream.Collectors.toList()));
-                }
-            });
-        return reviewPage;
+    /**
+     * Loads the list columns of the given reviews (in id order) and their media in one query each.
+     * Storefront: hidden media are left out and anonymous names are masked.
+     */
+    private List<ReviewItemResponse> toItems(List<Long> ids, boolean storefront, Integer commentPreview) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<ReviewRow> rows = commentPreview != null && commentPreview > 0
+                ? reviewRepository.findRowsWithCommentPreviewByIdIn(ids, commentPreview, storefront)
+                : reviewRepository.findRowsByIdIn(ids, storefront);
+        Map<Long, ReviewRow> rowsById = rows.stream()
+                .collect(Collectors.toMap(ReviewRow::getId, Function.identity()));
+        Map<Long, List<ReviewMediaResponse>> mediaByReview = reviewMediaRepository
+                .findRowsByReviewIdIn(ids, !storefront).stream()
+                .collect(Collectors.groupingBy(ReviewMediaRow::getReviewId, Collectors.mapping(
+                        media -> ReviewMediaResponse.builder()
+                                .id(media.getId())
+                                .mediaUrl(media.getMediaUrl())
+                                .mediaType(media.getMediaType())
+                                .fileSize(media.getFileSize())
+                                .isHidden(media.getIsHidden())
+                                .createdAt(media.getCreatedAt())
+                                .build(),
+                        Collectors.toList())));
+
+        List<ReviewItemResponse> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ReviewRow row = rowsById.get(id);
+            if (row == null) {
+                continue;
+            }
+            items.add(ReviewItemResponse.builder()
+                    .id(row.getId())
+                    .productId(row.getProductId())
+                    .productName(row.getProductName())
+                    .customerId(row.getCustomerId())
+                    .customerName(row.getCustomerName())
+                    .comment(row.getComment())
+                    .commentTruncated(commentPreview != null ? row.getCommentTruncated() : null)
+                    .rating(row.getRating())
+                    .status(row.getStatus())
+                    .hideReason(row.getHideReason())
+                    .reply(row.getReply())
+                    .isAnonymous(row.getIsAnonymous())
+                    .media(mediaByReview.getOrDefault(row.getId(), List.of()))
+                    .createdAt(row.getCreatedAt())
+                    .isPinned(row.getIsPinned())
+                    .build());
+        }
+        return items;
+    }
 
+    private List<ReviewStatus> resolveStatuses(Boolean status) {
+        List<ReviewStatus> statusList = new ArrayList<>();
+        if (Boolean.TRUE.equals(status)) {
+            // Storefront behavior: Only PUBLISHED
+            statusList.add(ReviewStatus.PUBLISHED);
+        } else {
+            // Admin behavior
+            if (status == null) {
+                statusList.add(ReviewStatus.PUBLISHED);
+                statusList.add(ReviewStatus.HIDDEN); // != ARCHIVED
+            } else {
+                statusList.add(ReviewStatus.HIDDEN);
+            }
+        }
+        return statusList;
     }
 
+    @Transactional(readOnly = true)
     public ReviewStatsResponse getReviewStats(String shop, String productId, Boolean status) {
 
         List<ReviewStatus> statusList = new ArrayList<>();
@@ -145,11 +383,27 @@ public class ReviewService {
             statusList.add(ReviewStatus.HIDDEN);
         }
 
-        ReviewStatsResponse p = reviewRepository.getReviewStats(shop, productId, statusList);
+        ReviewStatsResponse p = reviewStatsService.getStats(shop, productId, statusList);
 
         if (p == null || p.getTotalReviews() == 0) {
             return null;
         }
+        return rounded(p);
+    }
+
+    /**
+     * Published stats of several products (storefront collection pages), keyed by productId.
+     * Products without published reviews are absent from the map.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, ReviewStatsResponse> getPublishedReviewStats(String shop, Collection<String> productIds) {
+        Map<String, ReviewStatsResponse> stats = new LinkedHashMap<>();
+        reviewStatsService.getStatsByProduct(shop, productIds, ReviewStatus.PUBLISHED)
+                .forEach((productId, p) -> stats.put(productId, rounded(p)));
+        return stats;
+    }
+
+    private static ReviewStatsResponse rounded(ReviewStatsResponse p) {
         return ReviewStatsResponse.builder()
                 .totalReviews(p.getTotalReviews())
                 .averageRating(
@@ -165,6 +419,7 @@ public class ReviewService {
                 .build();
     }
 
+    @Transactional(readOnly = true)
     public ProductReview getReview(Long id) {
         return reviewRepository.getProductReviewById(id)
                 .orElseThrow(() -> new AppException(ErrorCode.INVALID_REQUEST));
@@ -172,8 +427,10 @@ public class ReviewService {
 
     @Transactional
     public void updateReviewStatus(UpdateReviewStatusRequest request) {
-        ProductReview productReview = reviewRepository.getProductReviewById(request.getId())
+        ProductReview productReview = reviewRepository.findForUpdateById(request.getId())
                 .orElseThrow(() -> new AppException(ErrorCode.INVALID_REQUEST));
+        ReviewStatus oldStatus = productReview.getStatus();
+        HideReason oldHideReason = productReview.getHideReason();
         // Status in Request is now ReviewStatus Enum
         ReviewStatus status = ReviewStatus.valueOf(request.getStatus().name());
         if (productReview.getStatus() != null)
@@ -181,33 +438,34 @@ public class ReviewService {
 
         productReview.setHideReason(request.getHideReason());
         reviewRepository.save(productReview);
+        reviewStatsService.recordModerated(productReview.getShop(), productReview.getProductId(),
+                productReview.getRating(), oldStatus, oldHideReason,
+                productReview.getStatus(), productReview.getHideReason());
+        recordChange(productReview, ReviewChangedEvent.Type.STATUS_CHANGED);
     }
 
     @Transactional
     public void togglePin(Long id, Boolean isPinned) {
         reviewRepository.updatePinnedStatus(id, isPinned);
+        reviewRepository.getProductReviewById(id)
+                .ifPresent(review -> recordChange(review, ReviewChangedEvent.Type.PIN_CHANGED));
     }
 
-    private String transformToAnonymous(String customerName) {
-        String[] parts = customerName.trim().split("\\s+");
-        String name = parts[parts.length - 1];
-
-        if (name.length() < 2) {
-            return "Anonymous";
-        }
-        int maskName = name.length() / 2;
-        int index = (name.length() - maskName) / 2;
-
-        StringBuilder sb = new StringBuilder(name);
-        for (int i = index; i <= index + maskName; i++)
-            sb.setCharAt(i, '*');
-
-        return sb.toString();
-
-    }
     @Transactional
     public void setMediaStatus(long id,boolean status) {
 
         reviewMediaRepository.updateStatus(id,status);
+        reviewMediaRepository.findReviewByMediaId(id)
+                .ifPresent(review -> recordChange(review, ReviewChangedEvent.Type.MEDIA_CHANGED));
+    }
+
+    /**
+     * Bump the product's version (same transaction) and announce the change. Only the product row
+     * is written, so writes to different products of a shop never wait on each other.
+     */
+    private void recordChange(ProductReview review, ReviewChangedEvent.Type type) {
+        versionRepository.bump(review.getShop(), review.getProductId(), LocalDateTime.now());
+        eventPublisher.publishEvent(
+                new ReviewChangedEvent(review.getShop(), review.getProductId(), review.getId(), type));
     }
 }
@@ -0,0 +1,179 @@
+package org.chatapp.customshopify.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.chatapp.customshopify.dto.response.ReviewSnapshotResponse;
+import org.chatapp.customshopify.entity.ProductReviewVersion;
+import org.chatapp.customshopify.repository.ProductReviewVersionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Writes static JSON snapshots of the storefront's first review page and stats to
+ * {dir}/{shop}/shop.json and {dir}/{shop}/products/{productId}.json, served by SnapshotConfig.
+ * <p>
+ * Only products whose review version moved (bumped with every ReviewChangedEvent, on any node) are
+ * regenerated, together with their shop's snapshot; an unchanged file keeps its ETag. Files are written to a temp file and moved into
+ * place, so readers never see a partial snapshot.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "app.snapshots.enabled", havingValue = "true")
+public class ReviewSnapshotPublisher {
+
+    private static final Pattern SHOP = Pattern.compile("[a-z0-9][a-z0-9-]*\\.myshopify\\.com");
+    private static final Pattern PRODUCT_ID = Pattern.compile("[A-Za-z0-9_-]{1,128}");
+
+    private final ReviewService reviewService;
+    private final ProductReviewVersionRepository versionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter writer;
+    private final Path root;
+    private final Set<String> shops;
+    private final int pageSize;
+    private final Duration pollOverlap;
+    private final Set<SnapshotKey> pending = ConcurrentHashMap.newKeySet();
+    // Last version seen per snapshot; the poll window overlaps, so most rows come back several times
+    private final Cache<SnapshotKey, Long> seenVersions;
+    private volatile LocalDateTime lastPoll = LocalDateTime.now();
+
+    public ReviewSnapshotPublisher(ReviewService reviewService,
+                                   ProductReviewVersionRepository versionRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   ObjectMapper objectMapper,
+                                   @Value("${app.snapshots.dir:snapshots}") Path root,
+                                   @Value("${app.snapshots.shops:}") Set<String> shops,
+                                   @Value("${app.snapshots.page-size:10}") int pageSize,
+                                   @Value("${app.snapshots.max-tracked:100000}") long maxTracked,
+                                   @Value("${app.cache.review-versions.poll-overlap:10s}") Duration pollOverlap) {
+        this.reviewService = reviewService;
+        this.versionRepository = versionRepository;
+        // Read-write so the reads join a primary transaction: a replica may not have the change yet
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.writer = objectMapper.copy()
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .writerFor(ReviewSnapshotResponse.class);
+        this.root = root.toAbsolutePath();
+        this.shops = shops;
+        this.pageSize = pageSize;
+        this.pollOverlap = pollOverlap;
+        this.seenVersions = Caffeine.newBuilder().maximumSize(maxTracked).build();
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Seed the configured shops, so their snapshots exist before the first change.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        for (String shop : shops) {
+            versionRepository.findByShop(shop).forEach(this::enqueue);
+        }
+        log.info("📸 Publishing review snapshots to {} for {}", root, shops.isEmpty() ? "all shops" : shops);
+    }
+
+    @Scheduled(fixedDelayString = "${app.snapshots.publish-interval-ms:1000}")
+    public void publishPending() {
+        pollChanges();
+        List<SnapshotKey> keys = new ArrayList<>(pending);
+        for (SnapshotKey key : keys) {
+            pending.remove(key);
+            try {
+                publish(key.shop(), key.productId());
+            } catch (Exception e) {
+                // Retried while the version is still inside the poll window; the shop-wide snapshot
+                // has no version of its own and is re-queued by any of its products
+                if (key.productId() == null) {
+                    seenVersions.asMap().keySet().removeIf(seen -> seen.shop().equals(key.shop()));
+                } else {
+                    seenVersions.invalidate(key);
+                }
+                log.warn("Snapshot of {} / {} failed: {}", key.shop(), key.productId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @param productId null for the shop-wide snapshot
+     */
+    public void publish(String shop, String productId) throws IOException {
+        ReviewSnapshotResponse snapshot = transactionTemplate.execute(status -> ReviewSnapshotResponse.builder()
+                .reviews(reviewService.getReviews(shop, productId, null, true, null, null, 0, pageSize, null, false))
+                .stats(reviewService.getReviewStats(shop, productId, true))
+                .generatedAt(System.currentTimeMillis())
+                .build());
+
+        Path target = pathOf(shop, productId);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".snapshot-", ".tmp");
+        try {
+            writer.writeValue(temp.toFile(), snapshot);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Versions bumped by any node (including this one) since the last poll
+    private void pollChanges() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            versionRepository.findUpdatedSince(lastPoll.minus(pollOverlap)).forEach(this::enqueue);
+            lastPoll = now;
+        } catch (Exception e) {
+            log.warn("Snapshot version poll failed: {}", e.getMessage());
+        }
+    }
+
+    private void enqueue(ProductReviewVersion version) {
+        String shop = version.getShop();
+        String productId = version.getProductId();
+        if (!shops.isEmpty() && !shops.contains(shop)) {
+            return;
+        }
+        if (!SHOP.matcher(shop).matches() || !PRODUCT_ID.matcher(productId).matches()) {
+            log.debug("No snapshot for {} / {}: not a safe file name", shop, productId);
+            return;
+        }
+        SnapshotKey key = new SnapshotKey(shop, productId);
+        if (!Objects.equals(seenVersions.asMap().put(key, version.getVersion()), version.getVersion())) {
+            pending.add(key);
+            // Any product change also moves the shop-wide page and stats
+            pending.add(new SnapshotKey(shop, null));
+        }
+    }
+
+    private Path pathOf(String shop, String productId) {
+        Path shopDir = root.resolve(shop);
+        return productId == null ? shopDir.resolve("shop.json") : shopDir.resolve("products").resolve(productId + ".json");
+    }
+
+    private record SnapshotKey(String shop, String productId) {
+    }
+}
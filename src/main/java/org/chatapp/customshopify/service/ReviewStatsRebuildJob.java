@@ -0,0 +1,32 @@
+package org.chatapp.customshopify.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.chatapp.customshopify.repository.ProductReviewStatsRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically recomputes product_review_stats from product_reviews, one product per transaction,
+ * to repair drift from manual data fixes or failed writes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReviewStatsRebuildJob {
+
+    private final ReviewStatsService reviewStatsService;
+    private final ProductReviewStatsRepository statsRepository;
+
+    @Scheduled(cron = "${app.stats.rebuild-cron:0 30 3 * * *}")
+    public void rebuildAll() {
+        log.info("🔄 Rebuilding review stats...");
+        int shops = 0;
+        int products = 0;
+        for (String shop : statsRepository.findShopsWithReviews()) {
+            products += reviewStatsService.rebuildShop(shop);
+            shops++;
+        }
+        log.info("✅ Review stats rebuilt for {} product(s) in {} shop(s)", products, shops);
+    }
+}
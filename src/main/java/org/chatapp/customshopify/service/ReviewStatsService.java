@@ -0,0 +1,268 @@
+package org.chatapp.customshopify.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.chatapp.customshopify.cache.ReviewVersionCache;
+import org.chatapp.customshopify.dto.model.ReviewStatsTotals;
+import org.chatapp.customshopify.dto.response.ReviewStatsResponse;
+import org.chatapp.customshopify.entity.ProductReviewStats;
+import org.chatapp.customshopify.enums.HideReason;
+import org.chatapp.customshopify.enums.ReviewStatus;
+import org.chatapp.customshopify.repository.ProductReviewStatsRepository;
+import org.chatapp.customshopify.repository.ProductReviewVersionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Review stats served from product_review_stats instead of aggregating product_reviews.
+ * ReviewService records every change that moves a review between histogram buckets,
+ * inside its own transaction; ReviewStatsRebuildJob repairs any drift.
+ * <p>
+ * Only per-product rows are written, so concurrent writes to different products never wait on each
+ * other. Shop-wide stats are summed from the product rows and the sum is kept until the shop's
+ * review version moves, so repeated reads cost a cache lookup rather than an aggregate.
+ */
+@Service
+@Slf4j
+public class ReviewStatsService {
+
+    private final ProductReviewStatsRepository statsRepository;
+    private final ProductReviewVersionRepository versionRepository;
+    private final ReviewVersionCache reviewVersionCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<ShopStatsKey, ShopStats> shopStats;
+
+    public ReviewStatsService(ProductReviewStatsRepository statsRepository,
+                              ProductReviewVersionRepository versionRepository,
+                              ReviewVersionCache reviewVersionCache,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.cache.shop-stats.max-size:10000}") long maxSize,
+                              @Value("${app.cache.shop-stats.ttl:10m}") Duration ttl) {
+        this.statsRepository = statsRepository;
+        this.versionRepository = versionRepository;
+        this.reviewVersionCache = reviewVersionCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shopStats = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Stats over the given statuses; productId null for the whole shop.
+     */
+    public ReviewStatsResponse getStats(String shop, String productId, Collection<ReviewStatus> statuses) {
+        if (productId == null) {
+            return sum(shopTotals(shop, statuses));
+        }
+        return sum(statsRepository.findByShopAndProductIdAndStatusIn(shop, productId, statuses).stream()
+                .map(ReviewStatsService::toTotals)
+                .toList());
+    }
+
+    /**
+     * Stats of one status for many products in a single query; products without reviews are left out.
+     */
+    public Map<String, ReviewStatsResponse> getStatsByProduct(String shop, Collection<String> productIds,
+                                                              ReviewStatus status) {
+        Map<String, ReviewStatsResponse> stats = new LinkedHashMap<>();
+        statsRepository.findByShopAndStatusAndProductIdIn(shop, status, productIds).stream()
+                .filter(row -> row.getTotalReviews() > 0)
+                .forEach(row -> stats.put(row.getProductId(), sum(List.of(toTotals(row)))));
+        return stats;
+    }
+
+    /**
+     * The shop's per-status sums, reused while the shop-wide version is unchanged. The version is read
+     * first: a change committed between the two reads is already in the sum and only causes a recompute.
+     */
+    private List<ReviewStatsTotals> shopTotals(String shop, Collection<ReviewStatus> statuses) {
+        long version = reviewVersionCache.get(shop, null);
+        ShopStatsKey key = new ShopStatsKey(shop, Set.copyOf(statuses));
+        ShopStats cached = shopStats.getIfPresent(key);
+        if (cached == null || cached.version() != version) {
+            cached = new ShopStats(version, List.copyOf(statsRepository.sumByShopAndStatusIn(shop, statuses)));
+            shopStats.put(key, cached);
+        }
+        return cached.rows();
+    }
+
+    private static ReviewStatsResponse sum(List<ReviewStatsTotals> rows) {
+        long total = 0, ratingSum = 0, rated = 0, one = 0, two = 0, three = 0, four = 0, five = 0, unmoderated = 0;
+        for (ReviewStatsTotals row : rows) {
+            total += value(row.getTotalReviews());
+            ratingSum += value(row.getRatingSum());
+            rated += value(row.getRatedReviews());
+            one += value(row.getOneStar());
+            two += value(row.getTwoStars());
+            three += value(row.getThreeStars());
+            four += value(row.getFourStars());
+            five += value(row.getFiveStars());
+            unmoderated += value(row.getUnmoderatedCount());
+        }
+        return ReviewStatsResponse.builder()
+                .totalReviews(total)
+                .averageRating(rated > 0 ? (double) ratingSum / rated : null)
+                .oneStar(one)
+                .twoStars(two)
+                .threeStars(three)
+                .fourStars(four)
+                .fiveStars(five)
+                .unModeratedCount(unmoderated)
+                .build();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(String shop, String productId, Integer rating, ReviewStatus status, HideReason hideReason) {
+        apply(shop, productId, rating, status, hideReason, 1);
+    }
+
+    /**
+     * Move a review from its old (status, hideReason) bucket to the new one.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordModerated(String shop, String productId, Integer rating,
+                                ReviewStatus oldStatus, HideReason oldHideReason,
+                                ReviewStatus newStatus, HideReason newHideReason) {
+        if (oldStatus == newStatus && isUnmoderated(oldStatus, oldHideReason) == isUnmoderated(newStatus, newHideReason)) {
+            return;
+        }
+        apply(shop, productId, rating, oldStatus, oldHideReason, -1);
+        apply(shop, productId, rating, newStatus, newHideReason, 1);
+    }
+
+    /**
+     * Recompute a shop's rows from product_reviews, one product per transaction.
+     * A product that fails is logged and left for the next run.
+     *
+     * @return the number of products rebuilt
+     */
+    public int rebuildShop(String shop) {
+        Set<String> productIds = new LinkedHashSet<>(statsRepository.findReviewedProductIds(shop));
+        productIds.addAll(statsRepository.findProductIds(shop));
+        int rebuilt = 0;
+        for (String productId : productIds) {
+            try {
+                transactionTemplate.executeWithoutResult(tx -> rebuildProduct(shop, productId));
+                rebuilt++;
+            } catch (Exception e) {
+                log.warn("Review stats rebuild failed for {} / {}: {}", shop, productId, e.getMessage());
+            }
+        }
+        return rebuilt;
+    }
+
+    /**
+     * Only the product's stats rows are locked; product_reviews is read without locks, so this cannot
+     * deadlock with a review write (review row, then stats row). The read happens after the lock is held:
+     * a write that has not reached the stats rows yet is not visible here and applies its delta after commit.
+     * A repaired product bumps its review version, so cached sums, ETags and snapshots move with it.
+     */
+    private void rebuildProduct(String shop, String productId) {
+        List<ProductReviewStats> rows = statsRepository.findForUpdateByShopAndProductId(shop, productId);
+        Map<ReviewStatus, ReviewStatsTotals> computed = new EnumMap<>(ReviewStatus.class);
+        statsRepository.computeFromReviews(shop, productId).forEach(totals -> computed.put(totals.getStatus(), totals));
+
+        LocalDateTime now = LocalDateTime.now();
+        boolean changed = false;
+        for (ProductReviewStats row : rows) {
+            ReviewStatsTotals totals = computed.remove(row.getStatus());
+            if (totals == null) {
+                statsRepository.delete(row);
+                changed = true;
+            } else if (!Objects.equals(toTotals(row), normalize(totals))) {
+                copy(totals, row, now);
+                changed = true;
+            }
+        }
+        for (ReviewStatsTotals totals : computed.values()) {
+            ProductReviewStats row = new ProductReviewStats();
+            row.setShop(shop);
+            row.setProductId(productId);
+            row.setStatus(totals.getStatus());
+            statsRepository.save(copy(totals, row, now));
+            changed = true;
+        }
+        if (changed) {
+            versionRepository.bump(shop, productId, now);
+        }
+    }
+
+    private void apply(String shop, String productId, Integer rating, ReviewStatus status, HideReason hideReason,
+                       int sign) {
+        if (status == null) {
+            return;
+        }
+        int r = rating != null ? rating : 0;
+        long unmoderated = isUnmoderated(status, hideReason) ? sign : 0;
+        statsRepository.addDelta(shop, productId, status.name(),
+                sign,
+                (long) sign * r,
+                rating != null ? sign : 0,
+                r == 1 ? sign : 0,
+                r == 2 ? sign : 0,
+                r == 3 ? sign : 0,
+                r == 4 ? sign : 0,
+                r == 5 ? sign : 0,
+                unmoderated,
+                LocalDateTime.now());
+    }
+
+    private static ReviewStatsTotals toTotals(ProductReviewStats row) {
+        return new ReviewStatsTotals(row.getStatus(), row.getTotalReviews(), row.getRatingSum(),
+                row.getRatedReviews(), row.getOneStar(), row.getTwoStars(), row.getThreeStars(),
+                row.getFourStars(), row.getFiveStars(), row.getUnmoderatedCount());
+    }
+
+    private static ReviewStatsTotals normalize(ReviewStatsTotals totals) {
+        return new ReviewStatsTotals(totals.getStatus(), value(totals.getTotalReviews()),
+                value(totals.getRatingSum()), value(totals.getRatedReviews()), value(totals.getOneStar()),
+                value(totals.getTwoStars()), value(totals.getThreeStars()), value(totals.getFourStars()),
+                value(totals.getFiveStars()), value(totals.getUnmoderatedCount()));
+    }
+
+    private static ProductReviewStats copy(ReviewStatsTotals totals, ProductReviewStats row, LocalDateTime now) {
+        row.setTotalReviews(value(totals.getTotalReviews()));
+        row.setRatingSum(value(totals.getRatingSum()));
+        row.setRatedReviews(value(totals.getRatedReviews()));
+        row.setOneStar(value(totals.getOneStar()));
+        row.setTwoStars(value(totals.getTwoStars()));
+        row.setThreeStars(value(totals.getThreeStars()));
+        row.setFourStars(value(totals.getFourStars()));
+        row.setFiveStars(value(totals.getFiveStars()));
+        row.setUnmoderatedCount(value(totals.getUnmoderatedCount()));
+        row.setUpdatedAt(now);
+        return row;
+    }
+
+    private static long value(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    // A hidden review without a hide reason still awaits moderation
+    private static boolean isUnmoderated(ReviewStatus status, HideReason hideReason) {
+        return hideReason == null && status != ReviewStatus.PUBLISHED;
+    }
+
+    private record ShopStatsKey(String shop, Set<ReviewStatus> statuses) {
+    }
+
+    private record ShopStats(long version, List<ReviewStatsTotals> rows) {
+    }
+}
@@ -0,0 +1,387 @@
+package org.chatapp.customshopify.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.chatapp.customshopify.dto.response.ReviewStatsResponse;
+import org.chatapp.customshopify.dto.response.ReviewStreamEvent;
+import org.chatapp.customshopify.entity.ProductReviewVersion;
+import org.chatapp.customshopify.event.ReviewChangedEvent;
+import org.chatapp.customshopify.exception.AppException;
+import org.chatapp.customshopify.exception.ErrorCode;
+import org.chatapp.customshopify.repository.ProductReviewVersionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent events of review changes for open admin tabs, per shop.
+ * <p>
+ * Changes are collected per shop after commit and announced on the next tick: one stats read for the
+ * shop per tick however many changes and tabs it has, and one serialized event per change. Nothing of
+ * this runs on the request thread that made the change.
+ * <p>
+ * Events are queued per tab and written by the sender pool, at most one write per tab at a time.
+ * SseEmitter.send is a blocking servlet write, so the pool can grow to one thread per open stream
+ * (bounded by max-total): a stalled socket holds only its own sender thread, never another tab's. Each
+ * write is bounded by the container's socket write timeout (server.tomcat.connection-timeout), after
+ * which the send fails and the thread is freed. A tab whose queue overflows, or whose write has been
+ * stuck longer than the send timeout, is dropped at once. Changes committed on other nodes are found by
+ * polling product_review_versions for the shops that have listeners here.
+ */
+@Service
+@Slf4j
+public class ReviewStreamService {
+
+    private static final String EVENT_NAME = "review";
+    // Queued in place of event data for a heartbeat comment
+    private static final String KEEPALIVE = "keepalive";
+
+    private final ReviewService reviewService;
+    private final ProductReviewVersionRepository versionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter writer;
+    private final long timeoutMillis;
+    private final int maxPerShop;
+    private final int maxTotal;
+    private final int maxQueued;
+    private final long sendTimeoutNanos;
+    private final Duration pollOverlap;
+    private final Map<String, List<Listener>> listeners = new ConcurrentHashMap<>();
+    private final AtomicInteger openStreams = new AtomicInteger();
+    // Changes not yet announced, per shop; taken as a whole by the next tick
+    private final Map<String, List<Change>> pendingChanges = new ConcurrentHashMap<>();
+    // Versions already announced, so the overlapping poll and local events do not repeat a change
+    private final Cache<VersionKey, Long> announcedVersions;
+    private final ThreadPoolExecutor sender;
+    private volatile LocalDateTime lastPoll = LocalDateTime.now();
+
+    public ReviewStreamService(ReviewService reviewService,
+                               ProductReviewVersionRepository versionRepository,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper,
+                               @Value("${app.reviews.stream.timeout:30m}") Duration timeout,
+                               @Value("${app.reviews.stream.max-per-shop:20}") int maxPerShop,
+                               @Value("${app.reviews.stream.max-total:500}") int maxTotal,
+                               @Value("${app.reviews.stream.max-queued:64}") int maxQueued,
+                               @Value("${app.reviews.stream.send-timeout:10s}") Duration sendTimeout,
+                               @Value("${app.cache.review-versions.poll-overlap:10s}") Duration pollOverlap) {
+        this.reviewService = reviewService;
+        this.versionRepository = versionRepository;
+        // Read-write so stats are read on the primary: a replica may not have the change yet.
+        // REQUIRES_NEW: never joins a caller's (possibly read-only) transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.writer = objectMapper.writerFor(ReviewStreamEvent.class);
+        this.timeoutMillis = timeout.toMillis();
+        this.maxPerShop = maxPerShop;
+        this.maxTotal = maxTotal;
+        this.maxQueued = maxQueued;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.pollOverlap = pollOverlap;
+        this.announcedVersions = Caffeine.newBuilder()
+                .expireAfterWrite(pollOverlap.multipliedBy(3))
+                .build();
+        AtomicInteger threads = new AtomicInteger();
+        // Up to one thread per open stream, created on demand and released when idle
+        this.sender = new ThreadPoolExecutor(maxTotal, maxTotal, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "review-stream-sender-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sender.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Open a stream for the shop; the first event carries the current stats.
+     */
+    public SseEmitter subscribe(String shop) {
+        Listener listener = new Listener(shop, new SseEmitter(timeoutMillis), new ArrayBlockingQueue<>(maxQueued));
+        List<Listener> shopListeners = listeners.compute(shop, (key, current) -> {
+            List<Listener> list = current != null ? current : new CopyOnWriteArrayList<>();
+            if (list.size() >= maxPerShop) {
+                throw new AppException(ErrorCode.TOO_MANY_STREAMS);
+            }
+            if (openStreams.incrementAndGet() > maxTotal) {
+                openStreams.decrementAndGet();
+                throw new AppException(ErrorCode.TOO_MANY_STREAMS);
+            }
+            list.add(listener);
+            return list;
+        });
+        SseEmitter emitter = listener.emitter;
+        emitter.onCompletion(() -> remove(listener));
+        emitter.onTimeout(() -> remove(listener));
+        emitter.onError(error -> remove(listener));
+        enqueue(listener, serialize(event("CONNECTED", null, null, readStats(shop))));
+        log.debug("Review stream opened for {} ({} open)", shop, shopListeners.size());
+        return emitter;
+    }
+
+    public int countListeners(String shop) {
+        List<Listener> shopListeners = listeners.get(shop);
+        return shopListeners != null ? shopListeners.size() : 0;
+    }
+
+    /**
+     * Remember the change for the next tick; no database work on the committing thread.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        if (countListeners(event.shop()) > 0) {
+            addChange(event.shop(), new Change(event.type().name(), event.reviewId(), event.productId(), true));
+        }
+    }
+
+    /**
+     * Announce changes made on other nodes to this node's listeners.
+     */
+    @Scheduled(fixedDelayString = "${app.reviews.stream.poll-interval-ms:2000}")
+    public void pollRemoteChanges() {
+        LocalDateTime now = LocalDateTime.now();
+        if (listeners.isEmpty()) {
+            lastPoll = now;
+            return;
+        }
+        try {
+            for (ProductReviewVersion version : versionRepository.findUpdatedSince(lastPoll.minus(pollOverlap))) {
+                if (countListeners(version.getShop()) == 0) {
+                    continue;
+                }
+                VersionKey key = new VersionKey(version.getShop(), version.getProductId());
+                if (Objects.equals(announcedVersions.asMap().put(key, version.getVersion()), version.getVersion())) {
+                    continue;
+                }
+                addChange(key.shop(), new Change("CHANGED", null, key.productId(), false));
+            }
+            lastPoll = now;
+        } catch (Exception e) {
+            log.warn("Review stream poll failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Announce the changes collected since the last tick, reading each shop's stats once.
+     */
+    @Scheduled(fixedDelayString = "${app.reviews.stream.coalesce-ms:250}")
+    public void announcePending() {
+        for (String shop : List.copyOf(pendingChanges.keySet())) {
+            List<Change> changes = pendingChanges.remove(shop);
+            if (changes == null || countListeners(shop) == 0) {
+                continue;
+            }
+            try {
+                announce(shop, changes);
+            } catch (Exception e) {
+                log.warn("Review stream event for {} failed: {}", shop, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Comment line to every open stream, so proxies keep idle connections open and dead ones are dropped.
+     */
+    @Scheduled(fixedDelayString = "${app.reviews.stream.heartbeat-ms:20000}")
+    public void heartbeat() {
+        listeners.values().forEach(shopListeners -> shopListeners.forEach(listener -> enqueue(listener, KEEPALIVE)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        listeners.values().forEach(shopListeners -> shopListeners.forEach(listener -> listener.emitter.complete()));
+        listeners.clear();
+        openStreams.set(0);
+    }
+
+    private void addChange(String shop, Change change) {
+        pendingChanges.compute(shop, (key, changes) -> {
+            List<Change> list = changes != null ? changes : new ArrayList<>();
+            list.add(change);
+            return list;
+        });
+    }
+
+    private void announce(String shop, List<Change> changes) {
+        // Record local versions so the poll does not announce them again; a product changed here
+        // makes the poll's entry for it in the same batch redundant
+        Set<String> localProducts = new HashSet<>();
+        changes.stream().filter(Change::local).map(Change::productId).filter(Objects::nonNull)
+                .forEach(localProducts::add);
+        if (!localProducts.isEmpty()) {
+            versionRepository.findByShopAndProductIdIn(shop, localProducts).forEach(version -> announcedVersions.put(
+                    new VersionKey(version.getShop(), version.getProductId()), version.getVersion()));
+        }
+        List<Change> announced = changes.stream()
+                .filter(change -> change.local() || !localProducts.contains(change.productId()))
+                .toList();
+
+        ReviewStatsResponse stats = readStats(shop);
+        List<String> events = announced.size() > maxQueued
+                // A burst would overflow every tab's queue: one event tells the tab to reload
+                ? List.of(serialize(event("CHANGED", null, null, stats)))
+                : announced.stream()
+                        .map(change -> serialize(event(change.type(), change.reviewId(), change.productId(), stats)))
+                        .toList();
+        List<Listener> shopListeners = listeners.get(shop);
+        if (shopListeners == null) {
+            return;
+        }
+        for (Listener listener : shopListeners) {
+            events.forEach(data -> enqueue(listener, data));
+        }
+    }
+
+    /**
+     * Queue data for the listener and make sure a sender drains its queue. Never blocks on the client.
+     */
+    private void enqueue(Listener listener, String data) {
+        if (listener.closed) {
+            return;
+        }
+        long sendStarted = listener.sendStartedNanos;
+        if (sendStarted != 0 && System.nanoTime() - sendStarted > sendTimeoutNanos) {
+            drop(listener, "send timed out");
+            return;
+        }
+        if (!listener.pending.offer(data)) {
+            drop(listener, "too far behind");
+            return;
+        }
+        if (listener.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(listener));
+        }
+    }
+
+    private void drain(Listener listener) {
+        while (true) {
+            String data = listener.pending.poll();
+            if (data == null) {
+                listener.draining.set(false);
+                // Re-check: an enqueue between poll and set saw draining = true and did not schedule
+                if (listener.pending.isEmpty() || !listener.draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            if (listener.closed) {
+                listener.emitter.complete();
+                listener.pending.clear();
+                listener.draining.set(false);
+                return;
+            }
+            listener.sendStartedNanos = System.nanoTime();
+            try {
+                listener.emitter.send(KEEPALIVE.equals(data)
+                        ? SseEmitter.event().comment(KEEPALIVE)
+                        : SseEmitter.event().name(EVENT_NAME).data(data, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                listener.closed = true;
+                remove(listener);
+            } finally {
+                listener.sendStartedNanos = 0;
+            }
+        }
+    }
+
+    /**
+     * Stop queueing for a slow listener. The emitter is completed by its sender, not here: completing
+     * waits for a write in progress, and this runs on threads that must not block.
+     */
+    private void drop(Listener listener, String reason) {
+        log.debug("Dropping review stream for {}: {}", listener.shop, reason);
+        listener.closed = true;
+        remove(listener);
+        // Something to poll, so the sender reaches the closed check even if the queue was empty
+        listener.pending.offer(KEEPALIVE);
+        if (listener.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(listener));
+        }
+    }
+
+    private ReviewStatsResponse readStats(String shop) {
+        return transactionTemplate.execute(status -> reviewService.getReviewStats(shop, null, null));
+    }
+
+    private static ReviewStreamEvent event(String type, Long reviewId, String productId, ReviewStatsResponse stats) {
+        return ReviewStreamEvent.builder()
+                .type(type)
+                .reviewId(reviewId)
+                .productId(productId)
+                .stats(stats)
+                .build();
+    }
+
+    private String serialize(ReviewStreamEvent event) {
+        try {
+            return writer.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.error("Cannot serialize review stream event: {}", e.getMessage());
+            throw new AppException(ErrorCode.INTERNAL_ERROR);
+        }
+    }
+
+    private void remove(Listener listener) {
+        listeners.computeIfPresent(listener.shop, (key, shopListeners) -> {
+            if (shopListeners.remove(listener)) {
+                openStreams.decrementAndGet();
+            }
+            return shopListeners.isEmpty() ? null : shopListeners;
+        });
+    }
+
+    private record VersionKey(String shop, String productId) {
+    }
+
+    // local: committed on this node; remote changes come from the version poll
+    private record Change(String type, Long reviewId, String productId, boolean local) {
+    }
+
+    private static final class Listener {
+        private final String shop;
+        private final SseEmitter emitter;
+        private final BlockingQueue<String> pending;
+        // A sender owns this listener's queue
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // System.nanoTime() of the write in progress, 0 when idle
+        private volatile long sendStartedNanos;
+        private volatile boolean closed;
+
+        private Listener(String shop, SseEmitter emitter, BlockingQueue<String> pending) {
+            this.shop = shop;
+            this.emitter = emitter;
+            this.pending = pending;
+        }
+    }
+}
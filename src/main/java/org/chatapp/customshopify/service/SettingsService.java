@@ -2,6 +2,7 @@ package org.chatapp.customshopify.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.chatapp.customshopify.cache.AppSettingsCache;
 import org.chatapp.customshopify.dto.request.UpdateSettingsRequest;
 import org.chatapp.customshopify.dto.response.BatchCalculationResult;
 import org.chatapp.customshopify.dto.response.SettingsResponse;
@@ -20,17 +21,21 @@ import java.util.Map;
 public class SettingsService {
 
     private final AppSettingsRepository settingsRepository;
+    private final AppSettingsCache settingsCache;
     private final ProductService productService;
 
     public SettingsResponse getSettings(String shop) {
         log.info("Getting settings for shop: {}", shop);
         
-        AppSettings settings = settingsRepository.findByShop(shop)
-                .orElse(new AppSettings(shop));
+        AppSettings settings = settingsCache.get(shop);
         
         return new SettingsResponse(shop, settings.getDiscountFeatureEnabled());
     }
 
+    public boolean isDiscountFeatureEnabled(String shop) {
+        return Boolean.TRUE.equals(settingsCache.get(shop).getDiscountFeatureEnabled());
+    }
+
     public UpdateSettingsResponse updateSettings(String shop, String accessToken, UpdateSettingsRequest request) {
         log.info("Updating settings for shop: {}", shop);
         
@@ -41,6 +46,7 @@ public class SettingsService {
         
         settings.setDiscountFeatureEnabled(enabled);
         settingsRepository.save(settings);
+        settingsCache.invalidate(shop);
         
         // If enabled, calculate discounts for all products
         // If disabled, clear all discounts (set to 0)
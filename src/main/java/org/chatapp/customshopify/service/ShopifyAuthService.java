@@ -2,6 +2,8 @@ package org.chatapp.customshopify.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.chatapp.customshopify.cache.ShopifySessionCache;
+import org.chatapp.customshopify.client.ShopifyClientConfig;
 import org.chatapp.customshopify.client.ShopifyRestClient;
 import org.chatapp.customshopify.config.ShopifyConfig;
 import org.chatapp.customshopify.dto.request.CodeExchangeRequest;
@@ -21,17 +23,31 @@ import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class ShopifyAuthService {
 
+    // How long a request waits for another request's exchange: the Shopify call plus saving the session
+    private static final Duration EXCHANGE_WAIT = ShopifyClientConfig.RESPONSE_TIMEOUT.plusSeconds(5);
+
     private final ShopifyConfig shopifyConfig;
     private final ShopifySessionRepository sessionRepository;
+    private final ShopifySessionCache sessionCache;
     private final ShopifyRestClient shopifyRestClient;
 
+    // Token exchanges currently running, one per shop
+    private final ConcurrentMap<String, CompletableFuture<ShopifySession>> exchangesInFlight = new ConcurrentHashMap<>();
+
     public AuthInitResponse initiateAuth(String shop) {
         // Validate shop domain
         if (!shop.endsWith(".myshopify.com")) {
@@ -126,6 +142,7 @@ public class ShopifyAuthService {
             }
 
             ShopifySession savedSession = sessionRepository.save(session);
+            sessionCache.invalidate(shop);
             log.info("✅ Session saved to database!");
             log.info("Session ID: {}", savedSession.getId());
             log.info("========== EXCHANGE COMPLETED ==========");
@@ -140,6 +157,50 @@ public class ShopifyAuthService {
         }
     }
 
+    /**
+     * Token Exchange with at most one exchange per shop in flight.
+     * Concurrent first requests from a new shop wait for the running exchange
+     * and share its session instead of calling Shopify again. The wait is bounded by the
+     * Shopify call's own timeout plus time to save the session.
+     */
+    public ShopifySession exchangeSessionTokenSingleFlight(String shop, String sessionToken) {
+        CompletableFuture<ShopifySession> exchange = new CompletableFuture<>();
+        CompletableFuture<ShopifySession> running = exchangesInFlight.putIfAbsent(shop, exchange);
+
+        if (running != null) {
+            log.info("Waiting for in-flight Token Exchange for shop: {}", shop);
+            try {
+                return running.get(EXCHANGE_WAIT.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof AppException appException) {
+                    throw appException;
+                }
+                throw new AppException(ErrorCode.TOKEN_EXCHANGE_FAILED);
+            } catch (TimeoutException e) {
+                // Let the next request start a fresh exchange instead of queueing behind a stuck one
+                exchangesInFlight.remove(shop, running);
+                log.warn("In-flight Token Exchange for shop {} did not finish within {}", shop, EXCHANGE_WAIT);
+                throw new AppException(ErrorCode.TOKEN_EXCHANGE_FAILED);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AppException(ErrorCode.TOKEN_EXCHANGE_FAILED);
+            }
+        }
+
+        try {
+            // An exchange may have completed between our cache miss and registering
+            ShopifySession session = sessionCache.get(shop)
+                    .orElseGet(() -> exchangeSessionTokenForAccessToken(shop, sessionToken));
+            exchange.complete(session);
+            return session;
+        } catch (RuntimeException e) {
+            exchange.completeExceptionally(e);
+            throw e;
+        } finally {
+            exchangesInFlight.remove(shop, exchange);
+        }
+    }
+
     /**
      * Exchange Session Token (JWT) for Offline Access Token using Token Exchange
      * This is the modern approach (App Bridge v4) - no redirect required!
@@ -189,6 +250,7 @@ public class ShopifyAuthService {
             }
 
             ShopifySession savedSession = sessionRepository.save(session);
+            sessionCache.invalidate(shop);
             log.info("✅ Session saved! ID: {}", savedSession.getId());
             log.info("========== TOKEN EXCHANGE COMPLETED ==========");
 
@@ -257,6 +319,15 @@ public class ShopifyAuthService {
     @Transactional
     public void deleteSessionsByShop(String shop) {
         sessionRepository.deleteByShop(shop);
+        sessionCache.invalidate(shop);
+    }
+
+    /**
+     * Delete a single session (e.g. after its access token was rejected)
+     */
+    public void deleteSession(ShopifySession session) {
+        sessionRepository.delete(session);
+        sessionCache.invalidate(session.getShop());
     }
 
     // Helper methods
@@ -1,54 +1,94 @@
 package org.chatapp.customshopify.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import lombok.RequiredArgsConstructor;
+import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
+import org.chatapp.customshopify.cache.AccessTokenValidityCache;
 import org.chatapp.customshopify.config.ShopifyConfig;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
+import java.util.Date;
 import java.util.Map;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ShopifyTokenValidator {
     
+    private static final long CLOCK_SKEW_SECONDS = 60; // Allow 60 seconds skew for local dev time difference
+    
     private final ShopifyConfig shopifyConfig;
+    private final AccessTokenValidityCache validityCache;
     private final RestTemplate restTemplate = new RestTemplate();
+    private final JwtParser sessionTokenParser;
+    private final Cache<String, Claims> verifiedClaims;
+    
+    public ShopifyTokenValidator(ShopifyConfig shopifyConfig,
+                                 AccessTokenValidityCache validityCache,
+                                 @Value("${app.cache.session-tokens.max-size:10000}") long maxCachedTokens) {
+        this.shopifyConfig = shopifyConfig;
+        this.validityCache = validityCache;
+        this.sessionTokenParser = buildSessionTokenParser(shopifyConfig.getApiSecret());
+        // Entries expire together with the token (exp + allowed skew); max-size 0 turns the cache off
+        this.verifiedClaims = maxCachedTokens <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(maxCachedTokens)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        return nanosUntilExpiry(claims);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return nanosUntilExpiry(claims);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
     
     /**
-     * Validate session token (JWT) from App Bridge
+     * Validate session token (JWT) from App Bridge.
+     * App Bridge reuses a token for about a minute, so verified claims are cached
+     * by token digest until the token expires.
      */
     public Claims validateSessionToken(String token) {
+        if (sessionTokenParser == null) {
+            log.error("❌ Session token validation unavailable: API secret is not a valid HMAC key");
+            return null;
+        }
+        
         try {
-            // Decode JWT without verification first to get shop
-            String[] parts = token.split("\\.");
-            if (parts.length != 3) {
-                log.error("Invalid JWT format");
-                return null;
+            String digest = verifiedClaims != null ? digest(token) : null;
+            if (digest != null) {
+                Claims cached = verifiedClaims.getIfPresent(digest);
+                if (cached != null) {
+                    return cached;
+                }
             }
             
-            String payload = new String(Base64.getUrlDecoder().decode(parts[1]));
-            log.debug("JWT payload: {}", payload);
-            
-            // Parse with verification using API secret (JJWT 0.12+ API)
-            javax.crypto.SecretKey key = io.jsonwebtoken.security.Keys.hmacShaKeyFor(
-                shopifyConfig.getApiSecret().getBytes(java.nio.charset.StandardCharsets.UTF_8)
-            );
-            
-            Claims claims = Jwts.parser()
-                    .clockSkewSeconds(60) // Allow 60 seconds skew for local dev time difference
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            Claims claims = sessionTokenParser.parseSignedClaims(token).getPayload();
+            if (digest != null) {
+                verifiedClaims.put(digest, claims);
+            }
             
             log.info("✅ Session token validated for shop: {}", claims.get("dest"));
             return claims;
@@ -60,9 +100,30 @@ public class ShopifyTokenValidator {
     }
     
     /**
-     * Validate access token by calling Shopify API
+     * Validate access token, calling Shopify API only when no cached result exists.
+     * Only Shopify's answer is cached: when it cannot be reached (timeout, 429, 5xx) the token
+     * is not treated as invalid and nothing is cached, so the next request asks again.
      */
     public boolean validateAccessToken(String shop, String accessToken) {
+        Boolean cached = validityCache.get(shop, accessToken);
+        if (cached != null) {
+            log.debug("Access token validity for shop {} served from cache: {}", shop, cached);
+            return cached;
+        }
+
+        Boolean valid = validateAccessTokenRemotely(shop, accessToken);
+        if (valid == null) {
+            return true;
+        }
+        validityCache.put(shop, accessToken, valid);
+        return valid;
+    }
+
+    /**
+     * @return true if Shopify accepted the token, false if it rejected it (401/403),
+     * null if there was no verdict
+     */
+    private Boolean validateAccessTokenRemotely(String shop, String accessToken) {
         try {
             log.info("Validating access token for shop: {}", shop);
             
@@ -77,19 +138,23 @@ public class ShopifyTokenValidator {
             ResponseEntity<Map> response = restTemplate.exchange(
                     url, HttpMethod.GET, entity, Map.class);
             
-            boolean valid = response.getStatusCode() == HttpStatus.OK;
-            
-            if (valid) {
+            if (response.getStatusCode() == HttpStatus.OK) {
                 log.info("✅ Access token is valid for shop: {}", shop);
-            } else {
-                log.warn("❌ Access token validation failed: {}", response.getStatusCode());
+                return true;
             }
+            log.warn("⚠️ Unexpected access token validation response for {}: {}", shop, response.getStatusCode());
+            return null;
             
-            return valid;
-            
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() == HttpStatus.UNAUTHORIZED || e.getStatusCode() == HttpStatus.FORBIDDEN) {
+                log.warn("❌ Access token rejected for {}: {}", shop, e.getStatusCode());
+                return false;
+            }
+            log.error("❌ Access token validation error for {}: {}", shop, e.getStatusCode());
+            return null;
         } catch (Exception e) {
             log.error("❌ Access token validation error for {}: {}", shop, e.getMessage());
-            return false;
+            return null;
         }
     }
     
@@ -136,4 +201,30 @@ public class ShopifyTokenValidator {
         }
         return result.toString();
     }
+
+    private static JwtParser buildSessionTokenParser(String apiSecret) {
+        try {
+            return Jwts.parser()
+                    .clockSkewSeconds(CLOCK_SKEW_SECONDS)
+                    .verifyWith(Keys.hmacShaKeyFor(apiSecret.getBytes(StandardCharsets.UTF_8)))
+                    .build();
+        } catch (Exception e) {
+            log.error("❌ Cannot build session token verifier: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    private static long nanosUntilExpiry(Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            return 0;
+        }
+        long millis = expiration.getTime() + CLOCK_SKEW_SECONDS * 1000 - System.currentTimeMillis();
+        return Math.max(0, millis) * 1_000_000;
+    }
+    
+    private static String digest(String token) throws NoSuchAlgorithmException {
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
+    }
 }
@@ -18,6 +18,7 @@ public class ProductReviewSpecification {
             Collection<ReviewStatus> statuses,
             Boolean isRead,
             String productName,
+            Collection<String> productNames,
             Boolean showHiddenMedia) {
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
@@ -49,7 +50,10 @@ public class ProductReviewSpecification {
                 }
             }
 
-            if (productName != null && !productName.isBlank()) {
+            if (productNames != null) {
+                // Names already resolved by ProductNameSearchService; uses the (shop, product_name) index
+                predicates.add(root.get("productName").in(productNames));
+            } else if (productName != null && !productName.isBlank()) {
                 predicates.add(
                         cb.like(
                                 cb.lower(root.get("productName")),
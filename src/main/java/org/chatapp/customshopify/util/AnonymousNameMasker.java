@@ -0,0 +1,36 @@
+package org.chatapp.customshopify.util;
+
+/**
+ * Masks the customer name of anonymous reviews shown on the storefront.
+ * Keeps the last word of the name and stars out its middle, e.g. "Nguyen Van Anh" -> "A**".
+ * Applied once when a review is written; reads use the stored product_reviews.display_name.
+ */
+public final class AnonymousNameMasker {
+
+    private AnonymousNameMasker() {
+    }
+
+    /**
+     * The storefront name of a review: masked when anonymous, otherwise the name as given.
+     */
+    public static String displayName(String customerName, boolean anonymous) {
+        return anonymous && customerName != null ? mask(customerName) : customerName;
+    }
+
+    public static String mask(String customerName) {
+        String[] parts = customerName.trim().split("\\s+");
+        String name = parts[parts.length - 1];
+
+        if (name.length() < 2) {
+            return "Anonymous";
+        }
+        int maskName = name.length() / 2;
+        int index = (name.length() - maskName) / 2;
+
+        StringBuilder sb = new StringBuilder(name);
+        for (int i = index; i <= index + maskName; i++)
+            sb.setCharAt(i, '*');
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,47 @@
+package org.chatapp.customshopify.util;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Search form of product names: lower case, accents stripped, whitespace collapsed,
+ * so "Áo  Thun" and "ao thun" match like they do under MySQL's _ci collations.
+ */
+public final class ProductNameNormalizer {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private ProductNameNormalizer() {
+    }
+
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'D');
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Distinct 3-character substrings of an already normalized name; shorter names are their own single gram.
+     */
+    public static Set<String> trigrams(String normalized) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        if (normalized.length() < 3) {
+            if (!normalized.isEmpty()) {
+                trigrams.add(normalized);
+            }
+            return trigrams;
+        }
+        for (int i = 0; i + 3 <= normalized.length(); i++) {
+            trigrams.add(normalized.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+}
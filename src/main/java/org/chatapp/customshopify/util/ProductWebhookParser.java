@@ -0,0 +1,85 @@
+package org.chatapp.customshopify.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Pulls the product id and the first variant's prices out of a products/update webhook with a
+ * streaming parser. Everything else in the payload (descriptions, images, options, the other
+ * variants) is skipped without building a tree.
+ */
+public final class ProductWebhookParser {
+
+    private ProductWebhookParser() {
+    }
+
+    /**
+     * @param price          first variant's price, null if the product has no variants
+     * @param compareAtPrice first variant's compare_at_price, null if unset
+     */
+    public record ProductPrices(String productId, String price, String compareAtPrice) {
+    }
+
+    public static ProductPrices parse(JsonFactory jsonFactory, String payload) throws IOException {
+        String id = null;
+        String price = null;
+        String compareAtPrice = null;
+        try (JsonParser parser = jsonFactory.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Product payload is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("id".equals(field) && value.isScalarValue() && value != JsonToken.VALUE_NULL) {
+                    id = parser.getText();
+                } else if ("variants".equals(field) && value == JsonToken.START_ARRAY) {
+                    JsonToken first = parser.nextToken();
+                    if (first != JsonToken.END_ARRAY) {
+                        if (first == JsonToken.START_OBJECT) {
+                            String[] prices = firstVariantPrices(parser);
+                            price = prices[0];
+                            compareAtPrice = prices[1];
+                        } else {
+                            parser.skipChildren();
+                        }
+                        // Skip the remaining variants
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            parser.skipChildren();
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        if (id == null) {
+            throw new IOException("Product payload has no id");
+        }
+        return new ProductPrices("gid://shopify/Product/" + id, price, compareAtPrice);
+    }
+
+    // Positioned on the variant's START_OBJECT; returns on its END_OBJECT
+    private static String[] firstVariantPrices(JsonParser parser) throws IOException {
+        String price = null;
+        String compareAtPrice = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("price".equals(field) && value.isScalarValue() && value != JsonToken.VALUE_NULL) {
+                price = parser.getText();
+            } else if ("compare_at_price".equals(field) && value.isScalarValue() && value != JsonToken.VALUE_NULL) {
+                compareAtPrice = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (price == null) {
+            throw new IOException("Product variant has no price");
+        }
+        return new String[]{price, compareAtPrice};
+    }
+}
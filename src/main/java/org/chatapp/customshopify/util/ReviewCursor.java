@@ -0,0 +1,40 @@
+package org.chatapp.customshopify.util;
+
+import org.chatapp.customshopify.dto.response.ReviewItemResponse;
+import org.chatapp.customshopify.exception.AppException;
+import org.chatapp.customshopify.exception.ErrorCode;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in a review listing: the (isPinned, createdAt, id) of the last review returned.
+ * Encoded as an opaque URL-safe string for clients.
+ */
+public record ReviewCursor(boolean pinned, LocalDateTime createdAt, long id) {
+
+    public static ReviewCursor of(ReviewItemResponse review) {
+        return new ReviewCursor(Boolean.TRUE.equals(review.getIsPinned()), review.getCreatedAt(), review.getId());
+    }
+
+    public String encode() {
+        String raw = (pinned ? "1" : "0") + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ReviewCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new AppException(ErrorCode.INVALID_REQUEST);
+            }
+            return new ReviewCursor("1".equals(parts[0]), LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (AppException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package org.chatapp.customshopify.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.chatapp.customshopify.dto.response.ApiResponse;
+import org.chatapp.customshopify.dto.response.PageResponse;
+import org.chatapp.customshopify.dto.response.ReviewItemResponse;
+import org.chatapp.customshopify.dto.response.ReviewMediaResponse;
+import org.chatapp.customshopify.dto.response.ReviewStatsResponse;
+import org.chatapp.customshopify.enums.ReviewStatus;
+import org.chatapp.customshopify.util.ProductWebhookParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLClassLoader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * JSON throughput of the hot endpoints.
+ *
+ * <ul>
+ *   <li>{@code reviewPage*} - a 20-review /api/reviews page (2 media each) wrapped in ApiResponse:
+ *       reflection vs Blackbird, to a byte[] (StorefrontResponseCache) and streamed to an output
+ *       stream (the MVC converter writing to the servlet response)</li>
+ *   <li>{@code stats*} - an /api/reviews/stats response</li>
+ *   <li>{@code webhook*} - products/update payload with 50 variants: tree model vs
+ *       ProductWebhookParser</li>
+ * </ul>
+ *
+ * <pre>
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.chatapp.customshopify.benchmark.JsonSerializationBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper reflectionMapper;
+    private ObjectMapper blackbirdMapper;
+    private ObjectWriter blackbirdWriter;
+    private ApiResponse<PageResponse<ReviewItemResponse>> reviewPage;
+    private ApiResponse<ReviewStatsResponse> stats;
+    private String webhookPayload;
+    private OutputStream sink;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        // Outside Spring logback defaults to DEBUG; keep logging out of the measurement
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        // Same defaults as Spring Boot's ObjectMapper, with and without JacksonConfig's module
+        reflectionMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        blackbirdMapper = reflectionMapper.copy().registerModule(new BlackbirdModule());
+        blackbirdWriter = blackbirdMapper.writer();
+        // Like the servlet response stream: writes are discarded and Jackson's close() is harmless
+        sink = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        };
+
+        LocalDateTime now = LocalDateTime.of(2026, 10, 19, 12, 0);
+        List<ReviewItemResponse> items = new ArrayList<>();
+        for (long i = 0; i < 20; i++) {
+            List<ReviewMediaResponse> media = new ArrayList<>();
+            for (long m = 0; m < 2; m++) {
+                media.add(ReviewMediaResponse.builder()
+                        .id(i * 10 + m)
+                        .mediaUrl("https://cdn.example.com/uploads/images/review-" + i + "-" + m + ".jpg")
+                        .mediaType("IMAGE")
+                        .fileSize(182_000L + m)
+                        .isHidden(false)
+                        .createdAt(now.minusHours(i))
+                        .build());
+            }
+            items.add(ReviewItemResponse.builder()
+                    .id(1000 + i)
+                    .productId("gid://shopify/Product/8412345678" + i)
+                    .productName("Linen Relaxed Fit Shirt")
+                    .customerId("customer-" + i)
+                    .customerName("J*** D***")
+                    .comment("Fits true to size and the fabric is lovely after a few washes. ".repeat(3))
+                    .rating((int) (i % 5) + 1)
+                    .status(ReviewStatus.PUBLISHED)
+                    .isAnonymous(i % 4 == 0)
+                    .media(media)
+                    .createdAt(now.minusHours(i))
+                    .isPinned(i == 0)
+                    .build());
+        }
+        reviewPage = ApiResponse.<PageResponse<ReviewItemResponse>>builder()
+                .data(PageResponse.of(items, 0, 20, 137))
+                .build();
+        stats = ApiResponse.<ReviewStatsResponse>builder()
+                .data(ReviewStatsResponse.builder()
+                        .totalReviews(137L).averageRating(4.3)
+                        .oneStar(4L).twoStars(6L).threeStars(11L).fourStars(38L).fiveStars(78L)
+                        .unModeratedCount(3L)
+                        .build())
+                .build();
+
+        ObjectNode product = reflectionMapper.createObjectNode()
+                .put("id", 8412345678L)
+                .put("title", "Linen Relaxed Fit Shirt")
+                .put("body_html", "<p>" + "Breathable linen, relaxed fit. ".repeat(40) + "</p>");
+        ArrayNode variants = product.putArray("variants");
+        for (int i = 0; i < 50; i++) {
+            variants.addObject()
+                    .put("id", 4412345678L + i)
+                    .put("title", "Size " + i)
+                    .put("price", "49.00")
+                    .put("compare_at_price", "59.00")
+                    .put("sku", "LIN-" + i)
+                    .put("inventory_quantity", 12);
+        }
+        ArrayNode images = product.putArray("images");
+        for (int i = 0; i < 10; i++) {
+            images.addObject().put("id", i).put("src", "https://cdn.shopify.com/s/files/linen-" + i + ".jpg");
+        }
+        webhookPayload = reflectionMapper.writeValueAsString(product);
+    }
+
+    @Benchmark
+    public byte[] reviewPageReflectionBytes() throws JsonProcessingException {
+        return reflectionMapper.writeValueAsBytes(reviewPage);
+    }
+
+    @Benchmark
+    public byte[] reviewPageBlackbirdBytes() throws JsonProcessingException {
+        return blackbirdWriter.writeValueAsBytes(reviewPage);
+    }
+
+    @Benchmark
+    public void reviewPageReflectionStreamed() throws IOException {
+        reflectionMapper.writeValue(sink, reviewPage);
+    }
+
+    @Benchmark
+    public void reviewPageBlackbirdStreamed() throws IOException {
+        blackbirdWriter.writeValue(sink, reviewPage);
+    }
+
+    @Benchmark
+    public byte[] statsReflection() throws JsonProcessingException {
+        return reflectionMapper.writeValueAsBytes(stats);
+    }
+
+    @Benchmark
+    public byte[] statsBlackbird() throws JsonProcessingException {
+        return blackbirdWriter.writeValueAsBytes(stats);
+    }
+
+    @Benchmark
+    public String webhookTreeModel() throws JsonProcessingException {
+        // What WebhookController did before ProductWebhookParser
+        JsonNode root = reflectionMapper.readTree(webhookPayload);
+        JsonNode firstVariant = root.get("variants").get(0);
+        return root.get("id").asText() + firstVariant.get("price").asText()
+                + firstVariant.get("compare_at_price").asText();
+    }
+
+    @Benchmark
+    public ProductWebhookParser.ProductPrices webhookStreaming() throws IOException {
+        return ProductWebhookParser.parse(blackbirdMapper.getFactory(), webhookPayload);
+    }
+
+    public static void main(String[] args) throws Exception {
+        // exec:java runs us in an isolated class loader; hand its classpath to the forked JVM
+        if (Thread.currentThread().getContextClassLoader() instanceof URLClassLoader loader) {
+            System.setProperty("java.class.path", Arrays.stream(loader.getURLs())
+                    .map(url -> new File(url.getPath()).getPath())
+                    .collect(Collectors.joining(File.pathSeparator)));
+        }
+        new Runner(new OptionsBuilder()
+                .include(JsonSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
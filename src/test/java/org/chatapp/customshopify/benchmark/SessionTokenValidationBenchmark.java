@@ -0,0 +1,133 @@
+package org.chatapp.customshopify.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.chatapp.customshopify.cache.AccessTokenValidityCache;
+import org.chatapp.customshopify.config.ShopifyConfig;
+import org.chatapp.customshopify.service.ShopifyTokenValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.SecretKey;
+import java.io.File;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Per-request cost of validating an App Bridge session token.
+ *
+ * <ul>
+ *   <li>{@code perCallParser} - the previous implementation: decode the payload,
+ *       derive the key and build a parser on every call</li>
+ *   <li>{@code prebuiltParser} - ShopifyTokenValidator with the claims cache turned off</li>
+ *   <li>{@code cachedClaims} - ShopifyTokenValidator as configured, the same token
+ *       presented repeatedly like App Bridge does</li>
+ * </ul>
+ *
+ * <pre>
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.chatapp.customshopify.benchmark.SessionTokenValidationBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionTokenValidationBenchmark {
+
+    private static final String API_SECRET = "0123456789abcdef0123456789abcdef";
+
+    private String token;
+    private ShopifyTokenValidator uncachedValidator;
+    private ShopifyTokenValidator cachingValidator;
+
+    @Setup
+    public void setUp() {
+        // Outside Spring logback defaults to DEBUG; keep logging out of the measurement
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        ShopifyConfig config = new ShopifyConfig();
+        config.getApi().setSecret(API_SECRET);
+        AccessTokenValidityCache validityCache =
+                new AccessTokenValidityCache(100, Duration.ofMinutes(10), Duration.ofSeconds(30));
+
+        // Max size 0 turns the claims cache off (a tiny cache would still hit until its async eviction)
+        uncachedValidator = new ShopifyTokenValidator(config, validityCache, 0);
+        cachingValidator = new ShopifyTokenValidator(config, validityCache, 10_000);
+
+        SecretKey key = Keys.hmacShaKeyFor(API_SECRET.getBytes(StandardCharsets.UTF_8));
+        long now = System.currentTimeMillis();
+        token = Jwts.builder()
+                .issuer("https://bench-shop.myshopify.com/admin")
+                .claim("dest", "https://bench-shop.myshopify.com")
+                .audience().add("73b514cf8dc1297f305e160896422557").and()
+                .subject("42")
+                .notBefore(new Date(now - 1000))
+                .issuedAt(new Date(now - 1000))
+                .expiration(new Date(now + Duration.ofHours(1).toMillis()))
+                .id("bench-jti")
+                .claim("sid", "bench-session")
+                .signWith(key)
+                .compact();
+    }
+
+    @Benchmark
+    public Claims perCallParser() {
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]));
+        if (payload.isEmpty()) {
+            return null;
+        }
+        SecretKey key = Keys.hmacShaKeyFor(API_SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser()
+                .clockSkewSeconds(60)
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    @Benchmark
+    public Claims prebuiltParser() {
+        return uncachedValidator.validateSessionToken(token);
+    }
+
+    @Benchmark
+    public Claims cachedClaims() {
+        return cachingValidator.validateSessionToken(token);
+    }
+
+    public static void main(String[] args) throws Exception {
+        // exec:java runs us in an isolated class loader; hand its classpath to the forked JVM
+        if (Thread.currentThread().getContextClassLoader() instanceof URLClassLoader loader) {
+            System.setProperty("java.class.path", Arrays.stream(loader.getURLs())
+                    .map(url -> new File(url.getPath()).getPath())
+                    .collect(Collectors.joining(File.pathSeparator)));
+        }
+        new Runner(new OptionsBuilder()
+                .include(SessionTokenValidationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
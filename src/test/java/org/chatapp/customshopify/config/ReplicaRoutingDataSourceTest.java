@@ -0,0 +1,126 @@
+package org.chatapp.customshopify.config;
+
+import org.chatapp.customshopify.cache.RecentWriteTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routing between two in-memory H2 databases, each holding a row that names it.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final String SERVICE_READ = "org.chatapp.customshopify.service.ReviewService.getReviews";
+    private static final String REPOSITORY_READ =
+            "org.springframework.data.jpa.repository.support.SimpleJpaRepository.findAll";
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaLagMonitor lagMonitor;
+    private RecentWriteTracker recentWriteTracker;
+    private JdbcTemplate jdbc;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica-0");
+        lagMonitor = new ReplicaLagMonitor(primary, Map.of("replica-0", replica), Duration.ofSeconds(5));
+        recentWriteTracker = new RecentWriteTracker(Duration.ofSeconds(10), 100);
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, lagMonitor, recentWriteTracker));
+        jdbc = new JdbcTemplate(routing);
+        transactionManager = new DataSourceTransactionManager(routing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        new JdbcTemplate(primary).execute("SHUTDOWN");
+        new JdbcTemplate(replica).execute("SHUTDOWN");
+    }
+
+    @Test
+    void readOnlyServiceTransactionGoesToHealthyReplica() {
+        replicate();
+        lagMonitor.check();
+
+        assertEquals("replica-0", serverIn(SERVICE_READ, true));
+    }
+
+    @Test
+    void writesAndRepositoryReadsStayOnPrimary() {
+        replicate();
+        lagMonitor.check();
+
+        assertEquals("primary", serverIn(SERVICE_READ, false));
+        assertEquals("primary", serverIn(REPOSITORY_READ, true));
+        assertEquals("primary", jdbc.queryForObject("SELECT name FROM server", String.class));
+    }
+
+    @Test
+    void laggingReplicaIsSkipped() {
+        // The replica never receives the primary's heartbeat
+        lagMonitor.check();
+        assertEquals("primary", serverIn(SERVICE_READ, true));
+
+        replicate();
+        lagMonitor.check();
+        assertEquals("replica-0", serverIn(SERVICE_READ, true));
+    }
+
+    @Test
+    void recentlyWrittenShopReadsItsWrites() {
+        replicate();
+        lagMonitor.check();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("shop", "demo.myshopify.com");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertEquals("replica-0", serverIn(SERVICE_READ, true));
+        recentWriteTracker.markWritten("demo.myshopify.com");
+        assertEquals("primary", serverIn(SERVICE_READ, true));
+    }
+
+    private String serverIn(String transactionName, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setName(transactionName);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbc.queryForObject("SELECT name FROM server", String.class));
+    }
+
+    // Stands in for replication: copy the primary's heartbeat to the replica
+    private void replicate() {
+        new JdbcTemplate(primary).update("UPDATE replication_heartbeat SET beat_millis = ? WHERE id = 1",
+                System.currentTimeMillis());
+        Long beat = new JdbcTemplate(primary).queryForObject(
+                "SELECT beat_millis FROM replication_heartbeat WHERE id = 1", Long.class);
+        new JdbcTemplate(replica).update("UPDATE replication_heartbeat SET beat_millis = ? WHERE id = 1", beat);
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE server (name VARCHAR(20))");
+        jdbc.update("INSERT INTO server VALUES (?)", name);
+        jdbc.execute("CREATE TABLE replication_heartbeat (id INT PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+        jdbc.update("INSERT INTO replication_heartbeat VALUES (1, 0)");
+        return dataSource;
+    }
+}
@@ -0,0 +1,154 @@
+package org.chatapp.customshopify.controller;
+
+import io.r2dbc.spi.ConnectionFactories;
+import org.chatapp.customshopify.config.ShopifyConfig;
+import org.chatapp.customshopify.exception.ErrorCode;
+import org.chatapp.customshopify.repository.ReactiveReviewRepository;
+import org.chatapp.customshopify.service.AppProxySignatureVerifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Reactive storefront read path against H2's R2DBC driver.
+ */
+class ReactiveReviewHandlerTest {
+
+    private static final String SECRET = "test-secret";
+    private static final String SHOP = "demo.myshopify.com";
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseClient db = DatabaseClient.create(ConnectionFactories.get(
+                "r2dbc:h2:mem:///reactive-" + UUID.randomUUID() + "?options=DB_CLOSE_DELAY=-1;MODE=MySQL"));
+        for (String sql : new String[]{
+                "CREATE TABLE product_reviews (id BIGINT AUTO_INCREMENT PRIMARY KEY, shop VARCHAR(255) NOT NULL, "
+                        + "product_id VARCHAR(255) NOT NULL, product_name VARCHAR(255), customer_id VARCHAR(255), "
+                        + "customer_name VARCHAR(255), display_name VARCHAR(255), comment CLOB, rating INT, status VARCHAR(255) NOT NULL, "
+                        + "hide_reason VARCHAR(255), reply CLOB, is_anonymous BOOLEAN, created_at TIMESTAMP, is_pinned BOOLEAN)",
+                "CREATE TABLE review_media (id BIGINT AUTO_INCREMENT PRIMARY KEY, review_id BIGINT NOT NULL, "
+                        + "media_url VARCHAR(255) NOT NULL, media_type VARCHAR(255), file_size BIGINT, is_hidden BOOLEAN, "
+                        + "created_at TIMESTAMP)",
+                "CREATE TABLE product_review_stats (id BIGINT AUTO_INCREMENT PRIMARY KEY, shop VARCHAR(255) NOT NULL, "
+                        + "product_id VARCHAR(255) NOT NULL, status VARCHAR(32) NOT NULL, total_reviews BIGINT, "
+                        + "rating_sum BIGINT, rated_reviews BIGINT, one_star BIGINT, two_stars BIGINT, three_stars BIGINT, "
+                        + "four_stars BIGINT, five_stars BIGINT, unmoderated_count BIGINT, updated_at TIMESTAMP)",
+                "INSERT INTO product_reviews (shop, product_id, product_name, customer_name, display_name, comment, rating, "
+                        + "status, is_anonymous, created_at, is_pinned) VALUES "
+                        + "('" + SHOP + "', 'p1', 'Shirt', 'Nguyen Van Anh', 'A**', 'Great', 5, 'PUBLISHED', TRUE, TIMESTAMP '2026-01-01 10:00:00', FALSE), "
+                        + "('" + SHOP + "', 'p1', 'Shirt', 'Bob', 'Bob', 'Pinned one', 4, 'PUBLISHED', FALSE, TIMESTAMP '2025-12-01 10:00:00', TRUE), "
+                        + "('" + SHOP + "', 'p1', 'Shirt', 'Hidden', 'Hidden', 'Spam', 1, 'HIDDEN', FALSE, TIMESTAMP '2026-01-02 10:00:00', FALSE), "
+                        + "('other.myshopify.com', 'p1', 'Shirt', 'Eve', 'Eve', 'Other shop', 3, 'PUBLISHED', FALSE, TIMESTAMP '2026-01-03 10:00:00', FALSE)",
+                "INSERT INTO review_media (review_id, media_url, media_type, is_hidden) VALUES "
+                        + "(1, 'https://cdn/a.jpg', 'IMAGE', FALSE), (1, 'https://cdn/b.jpg', 'IMAGE', TRUE)",
+                "INSERT INTO product_review_stats (shop, product_id, status, total_reviews, rating_sum, rated_reviews, "
+                        + "one_star, two_stars, three_stars, four_stars, five_stars, unmoderated_count) VALUES "
+                        + "('" + SHOP + "', 'p1', 'PUBLISHED', 1, 5, 1, 0, 0, 0, 0, 1, 0), "
+                        + "('" + SHOP + "', 'p2', 'PUBLISHED', 1, 4, 1, 0, 0, 0, 1, 0, 0), "
+                        + "('" + SHOP + "', 'p1', 'HIDDEN', 1, 1, 1, 1, 0, 0, 0, 0, 1), "
+                        + "('other.myshopify.com', 'p1', 'PUBLISHED', 1, 3, 1, 0, 0, 1, 0, 0, 0)"
+        }) {
+            db.sql(sql).then().block(Duration.ofSeconds(5));
+        }
+
+        ShopifyConfig config = new ShopifyConfig();
+        config.getApi().setSecret(SECRET);
+        ReactiveReviewHandler handler = new ReactiveReviewHandler(
+                new ReactiveReviewRepository(db),
+                new AppProxySignatureVerifier(config, Duration.ofMinutes(5)),
+                50);
+        client = WebTestClient.bindToRouterFunction(handler.routes()).build();
+    }
+
+    @Test
+    void returnsPublishedReviewsPinnedFirstWithVisibleMediaOnly() {
+        client.get().uri(signed("/api/reviews", Map.of("shop", SHOP, "productId", "p1")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo(1000)
+                .jsonPath("$.data.totalElements").isEqualTo(2)
+                .jsonPath("$.data.content[0].customerName").isEqualTo("Bob")
+                .jsonPath("$.data.content[1].customerName").isEqualTo("A**")
+                .jsonPath("$.data.content[1].comment").isEqualTo("Great")
+                .jsonPath("$.data.content[1].media.length()").isEqualTo(1)
+                .jsonPath("$.data.content[1].media[0].mediaUrl").isEqualTo("https://cdn/a.jpg");
+    }
+
+    @Test
+    void returnsShopWidePublishedStatsSummedOverProducts() {
+        client.get().uri(signed("/api/reviews/stats", Map.of("shop", SHOP)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.totalReviews").isEqualTo(2)
+                .jsonPath("$.data.averageRating").isEqualTo(4.5)
+                .jsonPath("$.data.fiveStars").isEqualTo(1)
+                .jsonPath("$.data.oneStar").isEqualTo(0);
+    }
+
+    @Test
+    void returnsProductPublishedStats() {
+        client.get().uri(signed("/api/reviews/stats", Map.of("shop", SHOP, "productId", "p2")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.totalReviews").isEqualTo(1)
+                .jsonPath("$.data.averageRating").isEqualTo(4.0)
+                .jsonPath("$.data.fourStars").isEqualTo(1);
+    }
+
+    @Test
+    void rejectsOutOfRangePaging() {
+        for (Map<String, String> paging : List.of(Map.of("page", "-1"), Map.of("size", "0"), Map.of("size", "51"))) {
+            Map<String, String> query = new HashMap<>(paging);
+            query.put("shop", SHOP);
+            client.get().uri(signed("/api/reviews", query))
+                    .exchange()
+                    .expectStatus().isBadRequest()
+                    .expectBody()
+                    .jsonPath("$.code").isEqualTo(ErrorCode.INVALID_REQUEST.getCode());
+        }
+    }
+
+    @Test
+    void rejectsUnsignedRequests() {
+        client.get().uri("/api/reviews?shop=" + SHOP)
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    private static String signed(String path, Map<String, String> query) {
+        Map<String, String> params = new TreeMap<>(query);
+        params.put("timestamp", String.valueOf(System.currentTimeMillis() / 1000));
+        params.put("path_prefix", "/apps/reviews");
+        StringBuilder message = new StringBuilder();
+        params.forEach((key, value) -> message.append(key).append('=').append(value));
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            params.put("signature", HexFormat.of().formatHex(
+                    mac.doFinal(message.toString().getBytes(StandardCharsets.UTF_8))));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        UriComponentsBuilder uri = UriComponentsBuilder.fromPath(path);
+        params.forEach(uri::queryParam);
+        return uri.build().encode().toUriString();
+    }
+}
@@ -0,0 +1,410 @@
+package org.chatapp.customshopify.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpServer;
+import org.chatapp.customshopify.CustomShopifyApplication;
+import org.chatapp.customshopify.entity.AppSettings;
+import org.chatapp.customshopify.entity.ShopifySession;
+import org.chatapp.customshopify.repository.AppSettingsRepository;
+import org.chatapp.customshopify.repository.ShopifySessionRepository;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+/**
+ * Open-loop load generator for POST /webhooks/products/update.
+ *
+ * <p>By default it starts a stand-in for the Shopify GraphQL endpoint, boots the
+ * application against an in-memory H2 database, seeds a session and enabled
+ * settings for the test shop, then sends signed product payloads at a fixed rate.
+ * Latency is measured from each request's scheduled send time, so a slow server
+ * is not hidden by the generator backing off.
+ *
+ * <pre>
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.chatapp.customshopify.load.WebhookLoadGenerator \
+ *     -Dload.rate=500 -Dload.duration=60
+ * </pre>
+ *
+ * Options (system properties): load.rate, load.duration, load.warmup,
+ * load.products, load.max-in-flight, load.stub-latency-ms, load.shop,
+ * load.secret, and load.target to drive an already running node instead
+ * (that node must use the same secret and have the shop seeded).
+ */
+public class WebhookLoadGenerator {
+
+    private static final String WEBHOOK_PATH = "/webhooks/products/update";
+    private static final String METAFIELDS_SET_RESPONSE =
+            "{\"data\":{\"metafieldsSet\":{\"metafields\":[],\"userErrors\":[]}}}";
+
+    private final int rate = Integer.getInteger("load.rate", 200);
+    private final int durationSeconds = Integer.getInteger("load.duration", 30);
+    private final int warmupSeconds = Integer.getInteger("load.warmup", 5);
+    private final int productCount = Integer.getInteger("load.products", 1000);
+    private final int maxInFlight = Integer.getInteger("load.max-in-flight", 2000);
+    private final int stubLatencyMs = Integer.getInteger("load.stub-latency-ms", 0);
+    private final String shop = System.getProperty("load.shop", "load-test.myshopify.com");
+    private final String secret = System.getProperty("load.secret", "load-test-secret");
+
+    private final ExecutorService stubExecutor = Executors.newFixedThreadPool(32);
+    private final ExecutorService clientExecutor =
+            Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+
+    public static void main(String[] args) throws Exception {
+        new WebhookLoadGenerator().run();
+    }
+
+    private void run() throws Exception {
+        String target = System.getProperty("load.target");
+        HttpServer stub = null;
+        ConfigurableApplicationContext context = null;
+
+        try {
+            if (target == null) {
+                stub = startGraphQLStub();
+                context = startApplication(stub.getAddress().getPort());
+                seed(context);
+                int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+                target = "http://127.0.0.1:" + port;
+            }
+
+            List<SignedPayload> payloads = generatePayloads();
+            System.out.printf("Driving %s%s at %d req/s for %ds (+%ds warmup), %d distinct products%n",
+                    target, WEBHOOK_PATH, rate, durationSeconds, warmupSeconds, productCount);
+
+            Result result = drive(URI.create(target + WEBHOOK_PATH), payloads);
+            result.print();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            if (stub != null) {
+                stub.stop(0);
+            }
+            stubExecutor.shutdownNow();
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    // ---------------------------------------------------------------- setup
+
+    private HttpServer startGraphQLStub() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(stubExecutor);
+        byte[] body = METAFIELDS_SET_RESPONSE.getBytes(StandardCharsets.UTF_8);
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            if (stubLatencyMs > 0) {
+                LockSupport.parkNanos(Duration.ofMillis(stubLatencyMs).toNanos());
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private ConfigurableApplicationContext startApplication(int stubPort) {
+        Map<String, Object> props = new HashMap<>();
+        props.put("server.port", "0");
+        props.put("spring.datasource.url", "jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        props.put("spring.datasource.username", "sa");
+        props.put("spring.datasource.password", "");
+        props.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        props.put("spring.jpa.hibernate.ddl-auto", "none");
+        props.put("spring.jpa.show-sql", "false");
+        props.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        props.put("spring.devtools.restart.enabled", "false");
+        props.put("shopify.api.secret", secret);
+        props.put("shopify.api.endpoints.graphql", "http://127.0.0.1:" + stubPort + "/%s/admin/api/%s/graphql.json");
+        props.put("logging.level.org.chatapp.customshopify", System.getProperty("load.log-level", "WARN"));
+        props.put("logging.level.org.springframework.security", "WARN");
+
+        // Command-line arguments take precedence over application.properties
+        String[] args = props.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+        return SpringApplication.run(CustomShopifyApplication.class, args);
+    }
+
+    private void seed(ConfigurableApplicationContext context) {
+        ShopifySession session = new ShopifySession();
+        session.setId("offline_" + shop);
+        session.setShop(shop);
+        session.setState("active");
+        session.setIsOnline(false);
+        session.setAccessToken("shpat_load_test");
+        session.setScope("read_products,write_products");
+        context.getBean(ShopifySessionRepository.class).save(session);
+
+        AppSettings settings = new AppSettings(shop);
+        settings.setDiscountFeatureEnabled(true);
+        context.getBean(AppSettingsRepository.class).save(settings);
+    }
+
+    // ------------------------------------------------------------- payloads
+
+    private List<SignedPayload> generatePayloads() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        Random random = new Random(42);
+
+        List<SignedPayload> payloads = new ArrayList<>(productCount);
+        for (int i = 0; i < productCount; i++) {
+            String body = mapper.writeValueAsString(productPayload(mapper, random, 7_000_000_000L + i));
+            // Same computation as ShopifyAuthService.verifyWebhookSignature
+            String hmac = Base64.getEncoder().encodeToString(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+            payloads.add(new SignedPayload(body, hmac));
+        }
+        return payloads;
+    }
+
+    private ObjectNode productPayload(ObjectMapper mapper, Random random, long productId) {
+        String now = LocalDateTime.now().toString() + "-00:00";
+        String title = "Load Test Product " + productId;
+
+        ObjectNode product = mapper.createObjectNode();
+        product.put("admin_graphql_api_id", "gid://shopify/Product/" + productId);
+        product.put("body_html", "<p>" + "Generated description for load testing. ".repeat(1 + random.nextInt(8)) + "</p>");
+        product.put("created_at", now);
+        product.put("handle", "load-test-product-" + productId);
+        product.put("id", productId);
+        product.put("product_type", "Apparel");
+        product.put("published_at", now);
+        product.put("template_suffix", "");
+        product.put("title", title);
+        product.put("updated_at", now);
+        product.put("vendor", "Load Test Vendor");
+        product.put("status", "active");
+        product.put("published_scope", "global");
+        product.put("tags", "load-test, generated");
+
+        ArrayNode variants = product.putArray("variants");
+        int variantCount = 1 + random.nextInt(6);
+        for (int v = 0; v < variantCount; v++) {
+            long variantId = productId * 10 + v;
+            int cents = 1000 + random.nextInt(20000);
+            ObjectNode variant = variants.addObject();
+            variant.put("admin_graphql_api_id", "gid://shopify/ProductVariant/" + variantId);
+            variant.put("barcode", String.valueOf(100000000000L + variantId));
+            // Most products are on sale so the update reaches the GraphQL mutation
+            if (random.nextInt(10) < 8) {
+                variant.put("compare_at_price", formatCents(cents + 500 + random.nextInt(5000)));
+            } else {
+                variant.putNull("compare_at_price");
+            }
+            variant.put("created_at", now);
+            variant.put("fulfillment_service", "manual");
+            variant.put("id", variantId);
+            variant.put("inventory_management", "shopify");
+            variant.put("inventory_policy", "deny");
+            variant.put("position", v + 1);
+            variant.put("price", formatCents(cents));
+            variant.put("product_id", productId);
+            variant.put("sku", "LT-" + variantId);
+            variant.put("taxable", true);
+            variant.put("title", "Size " + (v + 1));
+            variant.put("updated_at", now);
+            variant.put("option1", "Size " + (v + 1));
+            variant.putNull("option2");
+            variant.putNull("option3");
+            variant.put("grams", 200 + random.nextInt(800));
+            variant.putNull("image_id");
+            variant.put("weight", 0.5);
+            variant.put("weight_unit", "kg");
+            variant.put("inventory_item_id", variantId + 1);
+            variant.put("inventory_quantity", random.nextInt(100));
+            variant.put("old_inventory_quantity", random.nextInt(100));
+            variant.put("requires_shipping", true);
+        }
+
+        ArrayNode options = product.putArray("options");
+        ObjectNode option = options.addObject();
+        option.put("id", productId + 1);
+        option.put("product_id", productId);
+        option.put("name", "Size");
+        option.put("position", 1);
+
+        ArrayNode images = product.putArray("images");
+        for (int img = 0; img < 1 + random.nextInt(3); img++) {
+            ObjectNode image = images.addObject();
+            image.put("id", productId * 100 + img);
+            image.put("product_id", productId);
+            image.put("position", img + 1);
+            image.put("alt", title);
+            image.put("width", 1200);
+            image.put("height", 1200);
+            image.put("src", "https://cdn.shopify.com/s/files/1/0000/0001/products/" + productId + "_" + img + ".jpg");
+        }
+        product.set("image", images.get(0));
+        return product;
+    }
+
+    private static String formatCents(int cents) {
+        return String.format("%d.%02d", cents / 100, cents % 100);
+    }
+
+    // --------------------------------------------------------------- driver
+
+    private Result drive(URI uri, List<SignedPayload> payloads) {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        long intervalNanos = 1_000_000_000L / rate;
+        long warmupRequests = (long) rate * warmupSeconds;
+        long totalRequests = warmupRequests + (long) rate * durationSeconds;
+
+        Result result = new Result((int) (totalRequests - warmupRequests));
+        AtomicInteger inFlight = new AtomicInteger();
+        long start = System.nanoTime();
+        long measuredStart = start + warmupRequests * intervalNanos;
+
+        for (long i = 0; i < totalRequests; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = i >= warmupRequests;
+
+            if (inFlight.get() >= maxInFlight) {
+                if (measured) {
+                    result.dropped.increment();
+                }
+                continue;
+            }
+
+            SignedPayload payload = payloads.get((int) (i % payloads.size()));
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .header("X-Shopify-Hmac-SHA256", payload.hmac())
+                    .header("X-Shopify-Shop-Domain", shop)
+                    .header("X-Shopify-Topic", "products/update")
+                    .POST(HttpRequest.BodyPublishers.ofString(payload.body(), StandardCharsets.UTF_8))
+                    .build();
+
+            inFlight.incrementAndGet();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        // Recorded before the in-flight count drops, so the drain below sees every sample
+                        try {
+                            if (measured) {
+                                result.record(System.nanoTime() - intended,
+                                        error == null ? response.statusCode() : -1);
+                            }
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                    });
+        }
+        long sendEnd = System.nanoTime();
+
+        // Let outstanding requests finish
+        long deadline = sendEnd + Duration.ofSeconds(30).toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(Duration.ofMillis(10).toNanos());
+        }
+        result.abandoned = inFlight.get();
+        // Up to the last response, not the drain deadline, when requests were abandoned
+        result.elapsedNanos = Math.max(sendEnd, result.lastCompletedNanos.get()) - measuredStart;
+        return result;
+    }
+
+    private record SignedPayload(String body, String hmac) {
+    }
+
+    private static final class Result {
+        // 0 marks a slot not written yet (latencies are always positive)
+        private final AtomicLongArray latencies;
+        private final AtomicInteger count = new AtomicInteger();
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final LongAdder dropped = new LongAdder();
+        private final AtomicLong lastCompletedNanos = new AtomicLong();
+        private long elapsedNanos;
+        private int abandoned;
+
+        private Result(int capacity) {
+            this.latencies = new AtomicLongArray(capacity);
+        }
+
+        private void record(long latencyNanos, int status) {
+            int index = count.getAndIncrement();
+            if (index < latencies.length()) {
+                latencies.set(index, Math.max(1, latencyNanos));
+            }
+            statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+            lastCompletedNanos.accumulateAndGet(System.nanoTime(), Math::max);
+        }
+
+        private void print() {
+            // Abandoned requests may still complete while this runs; their slots are skipped
+            long[] sorted = IntStream.range(0, Math.min(count.get(), latencies.length()))
+                    .mapToLong(latencies::get)
+                    .filter(latency -> latency > 0)
+                    .sorted()
+                    .toArray();
+            int n = sorted.length;
+            long ok = statuses.getOrDefault(200, new LongAdder()).sum();
+            double seconds = elapsedNanos / 1e9;
+
+            System.out.println("---------------- webhook load result ----------------");
+            System.out.printf("completed      : %d in %.1fs (%d dropped at client, max in-flight reached)%n",
+                    n, seconds, dropped.sum());
+            if (abandoned > 0) {
+                System.out.printf("abandoned      : %d still in flight after the 30s drain, not counted%n", abandoned);
+            }
+            System.out.printf("throughput     : %.1f req/s total, %.1f req/s 200 OK%n", n / seconds, ok / seconds);
+            System.out.printf("status codes   : %s%n", statuses);
+            System.out.printf("latency p50    : %.2f ms%n", percentile(sorted, 0.50));
+            System.out.printf("latency p99    : %.2f ms%n", percentile(sorted, 0.99));
+            System.out.printf("latency p99.9  : %.2f ms%n", percentile(sorted, 0.999));
+            System.out.printf("latency max    : %.2f ms%n", n == 0 ? 0.0 : sorted[n - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+        }
+    }
+}
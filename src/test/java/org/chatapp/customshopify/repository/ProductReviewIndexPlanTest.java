@@ -0,0 +1,287 @@
+package org.chatapp.customshopify.repository;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * EXPLAIN checks for the product_reviews access patterns built by ProductReviewSpecification
+ * and the stats rebuild, against the schema produced by the Liquibase changelog.
+ *
+ * <p>H2 only reports "index sorted" when the ORDER BY columns lead the index, so on H2 the test
+ * asserts that an index is used and that the schema has an index made of equality columns
+ * followed by the ORDER BY columns (what MySQL needs to skip the filesort).
+ *
+ * <p>The "no filesort" assertion itself runs against MySQL's EXPLAIN, on a seeded MySQL container
+ * (Testcontainers), or on the scratch schema in EXPLAIN_MYSQL_URL when set. Without Docker the
+ * MySQL check is skipped locally but fails under CI (the CI environment variable is set).
+ */
+class ProductReviewIndexPlanTest {
+
+    private static final String CHANGELOG = "classpath:db/changelog/db.changelog-master.yaml";
+    private static final String SHOP = "'demo.myshopify.com'";
+    private static final String STOREFRONT_ORDER = " ORDER BY is_pinned DESC, created_at DESC, id DESC LIMIT 20";
+    private static final String ADMIN_ORDER = " ORDER BY created_at DESC, id DESC LIMIT 20";
+    private static final String ADMIN_STATUSES = " AND status IN ('PUBLISHED', 'HIDDEN')";
+    private static final String MYSQL_IMAGE = "mysql:8.0";
+    private static final List<String> PRODUCT_NAMES = List.of(
+            "Blue Cotton Shirt", "Red Cotton Shirt", "Cotton Socks", "Linen Shirt", "Wool Scarf");
+
+    private static SingleConnectionDataSource h2;
+    private static Map<String, List<String>> h2Indexes;
+
+    record AccessPattern(String name, String sql, Set<String> equalityColumns, List<String> orderColumns) {
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    static Stream<AccessPattern> patterns() {
+        String from = "SELECT id FROM product_reviews WHERE shop = " + SHOP;
+        List<String> storefrontOrder = List.of("is_pinned", "created_at", "id");
+        List<String> adminOrder = List.of("created_at", "id");
+        return Stream.of(
+                new AccessPattern("storefront product",
+                        from + " AND product_id = 'p1' AND status = 'PUBLISHED'" + STOREFRONT_ORDER,
+                        Set.of("shop", "product_id", "status"), storefrontOrder),
+                new AccessPattern("storefront product + rating",
+                        from + " AND product_id = 'p1' AND rating = 5 AND status = 'PUBLISHED'" + STOREFRONT_ORDER,
+                        Set.of("shop", "product_id", "rating", "status"), storefrontOrder),
+                new AccessPattern("storefront shop",
+                        from + " AND status = 'PUBLISHED'" + STOREFRONT_ORDER,
+                        Set.of("shop", "status"), storefrontOrder),
+                new AccessPattern("storefront shop + rating",
+                        from + " AND rating = 5 AND status = 'PUBLISHED'" + STOREFRONT_ORDER,
+                        Set.of("shop", "rating", "status"), storefrontOrder),
+                new AccessPattern("admin product",
+                        from + " AND product_id = 'p1'" + ADMIN_STATUSES + ADMIN_ORDER,
+                        Set.of("shop", "product_id"), adminOrder),
+                new AccessPattern("admin product + rating",
+                        from + " AND product_id = 'p1' AND rating = 1" + ADMIN_STATUSES + ADMIN_ORDER,
+                        Set.of("shop", "product_id", "rating"), adminOrder),
+                new AccessPattern("admin product unread",
+                        from + " AND product_id = 'p1'" + ADMIN_STATUSES
+                                + " AND status <> 'PUBLISHED' AND hide_reason IS NULL" + ADMIN_ORDER,
+                        Set.of("shop", "product_id", "hide_reason"), adminOrder),
+                new AccessPattern("admin shop",
+                        from + ADMIN_STATUSES + ADMIN_ORDER,
+                        Set.of("shop"), adminOrder),
+                new AccessPattern("admin shop, single status",
+                        from + " AND status = 'HIDDEN'" + ADMIN_ORDER,
+                        Set.of("shop", "status"), adminOrder),
+                new AccessPattern("admin shop + rating",
+                        from + " AND rating = 1" + ADMIN_STATUSES + ADMIN_ORDER,
+                        Set.of("shop", "rating"), adminOrder),
+                new AccessPattern("admin shop unread",
+                        from + ADMIN_STATUSES + " AND status <> 'PUBLISHED' AND hide_reason IS NULL" + ADMIN_ORDER,
+                        Set.of("shop", "hide_reason"), adminOrder),
+                new AccessPattern("admin shop read",
+                        from + ADMIN_STATUSES + " AND (status = 'PUBLISHED' OR hide_reason IS NOT NULL)" + ADMIN_ORDER,
+                        Set.of("shop"), adminOrder),
+                // A search matching several names reads each name's range in order and merges them
+                // (ProductReviewRepositoryCustom.findIdPageMerged): one branch per name
+                new AccessPattern("admin product name, one merged branch",
+                        from + " AND product_name IN ('Blue Cotton Shirt')" + ADMIN_STATUSES + ADMIN_ORDER,
+                        Set.of("shop", "product_name"), adminOrder),
+                // The total of a name search counts over every matched name at once
+                new AccessPattern("admin product name count",
+                        "SELECT COUNT(*) FROM product_reviews WHERE shop = " + SHOP
+                                + " AND product_name IN ('Blue Cotton Shirt', 'Red Cotton Shirt', 'Cotton Socks')"
+                                + ADMIN_STATUSES,
+                        Set.of("shop", "product_name"), List.of()),
+                new AccessPattern("stats rebuild",
+                        "SELECT product_id, status, COUNT(*) FROM product_reviews WHERE shop = " + SHOP
+                                + " GROUP BY product_id, status",
+                        Set.of("shop"), List.of("product_id", "status")));
+    }
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        h2 = new SingleConnectionDataSource(
+                "jdbc:h2:mem:index-plan-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "", true);
+        runChangelog(h2);
+        h2Indexes = indexes(h2.getConnection());
+    }
+
+    @AfterAll
+    static void close() {
+        h2.destroy();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("patterns")
+    void h2UsesAnIndexAndSchemaCoversTheSort(AccessPattern pattern) throws SQLException {
+        String plan = explainH2(pattern.sql());
+        assertFalse(plan.contains("tableScan"), () -> pattern + " scans the table:\n" + plan);
+        assertTrue(plan.contains(".IDX_PRODUCT_REVIEWS_"), () -> pattern + " uses no composite index:\n" + plan);
+
+        assertNotNull(sortCoveringIndex(h2Indexes, pattern),
+                () -> pattern + " has no index of " + pattern.equalityColumns() + " followed by "
+                        + pattern.orderColumns() + " in " + h2Indexes.keySet());
+    }
+
+    @Test
+    void mysqlPlansAvoidFilesort() throws Exception {
+        String url = System.getenv("EXPLAIN_MYSQL_URL");
+        if (url != null && !url.isBlank()) {
+            explainOnMySql(new SingleConnectionDataSource(url, true));
+            return;
+        }
+        if (System.getenv("CI") == null) {
+            assumeTrue(DockerClientFactory.instance().isDockerAvailable(),
+                    "No Docker for a MySQL container and EXPLAIN_MYSQL_URL not set");
+        }
+        try (MySQLContainer<?> container = new MySQLContainer<>(MYSQL_IMAGE)) {
+            container.start();
+            explainOnMySql(new SingleConnectionDataSource(
+                    container.getJdbcUrl(), container.getUsername(), container.getPassword(), true));
+        }
+    }
+
+    private static void explainOnMySql(SingleConnectionDataSource mysql) throws Exception {
+        try {
+            runChangelog(mysql);
+            seed(mysql.getConnection());
+            try (Statement statement = mysql.getConnection().createStatement()) {
+                // Index statistics for the seeded rows, so the optimizer plans as it would in production
+                statement.execute("ANALYZE TABLE product_reviews");
+                for (AccessPattern pattern : patterns().toList()) {
+                    try (ResultSet rs = statement.executeQuery("EXPLAIN " + pattern.sql())) {
+                        assertTrue(rs.next(), pattern::toString);
+                        String key = rs.getString("key");
+                        String extra = String.valueOf(rs.getString("Extra"));
+                        assertNotNull(key, () -> pattern + " uses no index: " + extra);
+                        assertFalse(extra.contains("filesort"), () -> pattern + " sorts via " + key + ": " + extra);
+                        assertFalse(extra.contains("temporary"), () -> pattern + " uses a temp table: " + extra);
+                    }
+                }
+            }
+        } finally {
+            mysql.destroy();
+        }
+    }
+
+    /**
+     * Reviews spread over several shops, products and names, with mixed statuses, ratings and pins.
+     */
+    private static void seed(Connection connection) throws SQLException {
+        String[] shops = {"demo.myshopify.com", "other.myshopify.com", "third.myshopify.com"};
+        String[] statuses = {"PUBLISHED", "PUBLISHED", "PUBLISHED", "HIDDEN", "ARCHIVED"};
+        Random random = new Random(41);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO product_reviews "
+                + "(shop, product_id, product_name, status, rating, hide_reason, is_pinned, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < 6000; i++) {
+                int product = random.nextInt(200);
+                String status = statuses[random.nextInt(statuses.length)];
+                insert.setString(1, shops[random.nextInt(shops.length)]);
+                insert.setString(2, "p" + product);
+                insert.setString(3, PRODUCT_NAMES.get(product % PRODUCT_NAMES.size()));
+                insert.setString(4, status);
+                insert.setInt(5, 1 + random.nextInt(5));
+                insert.setString(6, "HIDDEN".equals(status) && random.nextBoolean() ? "SPAM" : null);
+                insert.setBoolean(7, random.nextInt(50) == 0);
+                insert.setTimestamp(8, Timestamp.valueOf(start.plusMinutes(random.nextInt(500_000))));
+                insert.addBatch();
+                if (i % 500 == 499) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static void runChangelog(SingleConnectionDataSource dataSource) throws Exception {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog(CHANGELOG);
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+    }
+
+    private static String explainH2(String sql) throws SQLException {
+        try (Statement statement = h2.getConnection().createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    /**
+     * Index names to lower-case column lists, in index order.
+     */
+    private static Map<String, List<String>> indexes(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String table = metaData.storesUpperCaseIdentifiers() ? "PRODUCT_REVIEWS" : "product_reviews";
+        Map<String, List<String>> indexes = new LinkedHashMap<>();
+        try (ResultSet rs = metaData.getIndexInfo(null, null, table, false, false)) {
+            while (rs.next()) {
+                String column = rs.getString("COLUMN_NAME");
+                if (column == null) {
+                    continue;
+                }
+                List<String> columns = indexes.computeIfAbsent(
+                        rs.getString("INDEX_NAME").toLowerCase(Locale.ROOT), name -> new ArrayList<>());
+                int position = rs.getShort("ORDINAL_POSITION") - 1;
+                while (columns.size() <= position) {
+                    columns.add(null);
+                }
+                columns.set(position, column.toLowerCase(Locale.ROOT));
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * An index whose leading columns are all equality-bound and whose next columns are exactly the
+     * ORDER BY / GROUP BY columns, so rows come out of the index already in order.
+     */
+    private static String sortCoveringIndex(Map<String, List<String>> indexes, AccessPattern pattern) {
+        for (Map.Entry<String, List<String>> index : indexes.entrySet()) {
+            List<String> columns = index.getValue();
+            int prefix = 0;
+            while (prefix < columns.size() && pattern.equalityColumns().contains(columns.get(prefix))) {
+                prefix++;
+            }
+            if (prefix == 0 || prefix + pattern.orderColumns().size() > columns.size()) {
+                continue;
+            }
+            if (columns.subList(prefix, prefix + pattern.orderColumns().size()).equals(pattern.orderColumns())) {
+                return index.getKey();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,134 @@
+package org.chatapp.customshopify.service;
+
+import org.chatapp.customshopify.config.ShopifyConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * App Proxy signatures as Shopify computes them: sorted "key=value" pairs, multiple values joined by ",",
+ * no separator between pairs, HMAC-SHA256 with the app secret, hex encoded.
+ */
+class AppProxySignatureVerifierTest {
+
+    private static final String SECRET = "test-secret";
+
+    private AppProxySignatureVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        ShopifyConfig config = new ShopifyConfig();
+        config.getApi().setSecret(SECRET);
+        verifier = new AppProxySignatureVerifier(config, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void acceptsAValidSignature() {
+        assertTrue(verifier.verify(signed(storefrontParams(now()))));
+    }
+
+    @Test
+    void acceptsShopifysDocumentedExample() {
+        // https://shopify.dev/docs/apps/build/online-store/display-dynamic-data#calculate-a-digital-signature
+        ShopifyConfig config = new ShopifyConfig();
+        config.getApi().setSecret("hush");
+        AppProxySignatureVerifier docsVerifier =
+                new AppProxySignatureVerifier(config, Duration.ofSeconds(now() - 1317327555L + 60));
+
+        Map<String, String[]> params = new HashMap<>();
+        params.put("extra", new String[]{"1", "2"});
+        params.put("shop", new String[]{"shop-name.myshopify.com"});
+        params.put("path_prefix", new String[]{"/apps/awesome_reviews"});
+        params.put("timestamp", new String[]{"1317327555"});
+        params.put("signature", new String[]{"a9718877bea71c2484f91608a7eaea1532bdf71f5c56825065fa4ccabe549ef3"});
+        assertTrue(docsVerifier.verify(params));
+    }
+
+    @Test
+    void rejectsATamperedParameter() {
+        Map<String, String[]> params = signed(storefrontParams(now()));
+        params.put("productId", new String[]{"gid://shopify/Product/2"});
+        assertFalse(verifier.verify(params));
+    }
+
+    @Test
+    void joinsMultipleValuesWithComma() {
+        Map<String, String[]> params = storefrontParams(now());
+        params.put("extra", new String[]{"1", "2"});
+        Map<String, String[]> signed = signed(params);
+        assertTrue(verifier.verify(signed));
+
+        // Same values, different order: a different message
+        signed.put("extra", new String[]{"2", "1"});
+        assertFalse(verifier.verify(signed));
+    }
+
+    @Test
+    void rejectsAMissingSignature() {
+        Map<String, String[]> params = signed(storefrontParams(now()));
+        params.remove("signature");
+        assertFalse(verifier.verify(params));
+
+        params.put("signature", new String[]{""});
+        assertFalse(verifier.verify(params));
+    }
+
+    @Test
+    void rejectsASignatureThatIsNotHex() {
+        Map<String, String[]> params = signed(storefrontParams(now()));
+        params.put("signature", new String[]{"not-hex"});
+        assertFalse(verifier.verify(params));
+    }
+
+    @Test
+    void rejectsAStaleTimestamp() {
+        long tenMinutesAgo = now() - Duration.ofMinutes(10).toSeconds();
+        assertFalse(verifier.verify(signed(storefrontParams(tenMinutesAgo))));
+    }
+
+    @Test
+    void rejectsAMissingTimestamp() {
+        Map<String, String[]> params = storefrontParams(now());
+        params.remove("timestamp");
+        assertFalse(verifier.verify(signed(params)));
+    }
+
+    private static long now() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private static Map<String, String[]> storefrontParams(long timestamp) {
+        Map<String, String[]> params = new HashMap<>();
+        params.put("shop", new String[]{"demo.myshopify.com"});
+        params.put("path_prefix", new String[]{"/apps/reviews"});
+        params.put("logged_in_customer_id", new String[]{""});
+        params.put("productId", new String[]{"gid://shopify/Product/1"});
+        params.put("timestamp", new String[]{String.valueOf(timestamp)});
+        return params;
+    }
+
+    private static Map<String, String[]> signed(Map<String, String[]> params) {
+        StringBuilder message = new StringBuilder();
+        new TreeMap<>(params).forEach((key, values) -> message.append(key).append('=').append(String.join(",", values)));
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            params.put("signature", new String[]{HexFormat.of().formatHex(
+                    mac.doFinal(message.toString().getBytes(StandardCharsets.UTF_8)))});
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return params;
+    }
+}
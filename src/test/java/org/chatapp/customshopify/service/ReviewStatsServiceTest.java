@@ -0,0 +1,157 @@
+package org.chatapp.customshopify.service;
+
+import org.chatapp.customshopify.cache.ReviewVersionCache;
+import org.chatapp.customshopify.dto.model.ReviewStatsTotals;
+import org.chatapp.customshopify.dto.response.ReviewStatsResponse;
+import org.chatapp.customshopify.enums.HideReason;
+import org.chatapp.customshopify.enums.ReviewStatus;
+import org.chatapp.customshopify.repository.ProductReviewStatsRepository;
+import org.chatapp.customshopify.repository.ProductReviewVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Histogram bucket moves recorded by ReviewStatsService when a review is moderated, and the
+ * shop-wide sum it keeps per review version.
+ */
+class ReviewStatsServiceTest {
+
+    private static final String SHOP = "demo.myshopify.com";
+    private static final String PRODUCT = "gid://shopify/Product/1";
+
+    private ProductReviewStatsRepository statsRepository;
+    private ReviewVersionCache reviewVersionCache;
+    private ReviewStatsService service;
+
+    @BeforeEach
+    void setUp() {
+        statsRepository = mock(ProductReviewStatsRepository.class);
+        reviewVersionCache = mock(ReviewVersionCache.class);
+        service = new ReviewStatsService(statsRepository, mock(ProductReviewVersionRepository.class),
+                reviewVersionCache, mock(PlatformTransactionManager.class), 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void shopWideStatsAreSummedOncePerVersion() {
+        Set<ReviewStatus> published = Set.of(ReviewStatus.PUBLISHED);
+        when(reviewVersionCache.get(SHOP, null)).thenReturn(7L);
+        when(statsRepository.sumByShopAndStatusIn(SHOP, published)).thenReturn(List.of(
+                new ReviewStatsTotals(ReviewStatus.PUBLISHED, 3L, 12L, 3L, 0L, 0L, 0L, 3L, 0L, 0L)));
+
+        ReviewStatsResponse first = service.getStats(SHOP, null, published);
+        ReviewStatsResponse second = service.getStats(SHOP, null, List.of(ReviewStatus.PUBLISHED));
+
+        assertEquals(3L, first.getTotalReviews());
+        assertEquals(4.0, second.getAverageRating());
+        verify(statsRepository, times(1)).sumByShopAndStatusIn(any(), any());
+    }
+
+    @Test
+    void shopWideStatsAreSummedAgainWhenTheVersionMoves() {
+        Set<ReviewStatus> published = Set.of(ReviewStatus.PUBLISHED);
+        when(reviewVersionCache.get(SHOP, null)).thenReturn(7L, 8L);
+        when(statsRepository.sumByShopAndStatusIn(SHOP, published)).thenReturn(
+                List.of(new ReviewStatsTotals(ReviewStatus.PUBLISHED, 3L, 12L, 3L, 0L, 0L, 0L, 3L, 0L, 0L)),
+                List.of(new ReviewStatsTotals(ReviewStatus.PUBLISHED, 4L, 17L, 4L, 0L, 0L, 0L, 3L, 1L, 0L)));
+
+        service.getStats(SHOP, null, published);
+        ReviewStatsResponse afterChange = service.getStats(SHOP, null, published);
+
+        assertEquals(4L, afterChange.getTotalReviews());
+        assertEquals(1L, afterChange.getFiveStars());
+        verify(statsRepository, times(2)).sumByShopAndStatusIn(SHOP, published);
+    }
+
+    @Test
+    void publishToModeratedHideMovesTheReviewBetweenStatusRows() {
+        service.recordModerated(SHOP, PRODUCT, 4,
+                ReviewStatus.PUBLISHED, null, ReviewStatus.HIDDEN, HideReason.SPAM);
+
+        InOrder order = inOrder(statsRepository);
+        order.verify(statsRepository).addDelta(eq(SHOP), eq(PRODUCT), eq("PUBLISHED"),
+                eq(-1L), eq(-4L), eq(-1L), eq(0L), eq(0L), eq(0L), eq(-1L), eq(0L), eq(0L), any());
+        order.verify(statsRepository).addDelta(eq(SHOP), eq(PRODUCT), eq("HIDDEN"),
+                eq(1L), eq(4L), eq(1L), eq(0L), eq(0L), eq(0L), eq(1L), eq(0L), eq(0L), any());
+        verifyNoMoreInteractions(statsRepository);
+    }
+
+    @Test
+    void publishingAnUnmoderatedReviewClearsItsUnmoderatedCount() {
+        service.recordModerated(SHOP, PRODUCT, 5,
+                ReviewStatus.HIDDEN, null, ReviewStatus.PUBLISHED, null);
+
+        InOrder order = inOrder(statsRepository);
+        order.verify(statsRepository).addDelta(eq(SHOP), eq(PRODUCT), eq("HIDDEN"),
+                eq(-1L), eq(-5L), eq(-1L), eq(0L), eq(0L), eq(0L), eq(0L), eq(-1L), eq(-1L), any());
+        order.verify(statsRepository).addDelta(eq(SHOP), eq(PRODUCT), eq("PUBLISHED"),
+                eq(1L), eq(5L), eq(1L), eq(0L), eq(0L), eq(0L), eq(0L), eq(1L), eq(0L), any());
+        verifyNoMoreInteractions(statsRepository);
+    }
+
+    @Test
+    void settingAHideReasonOnAHiddenReviewOnlyMovesTheUnmoderatedCount() {
+        service.recordModerated(SHOP, PRODUCT, 1,
+                ReviewStatus.HIDDEN, null, ReviewStatus.HIDDEN, HideReason.FAKE);
+
+        InOrder order = inOrder(statsRepository);
+        order.verify(statsRepository).addDelta(eq(SHOP), eq(PRODUCT), eq("HIDDEN"),
+                eq(-1L), eq(-1L), eq(-1L), eq(-1L), eq(0L), eq(0L), eq(0L), eq(0L), eq(-1L), any());
+        order.verify(statsRepository).addDelta(eq(SHOP), eq(PRODUCT), eq("HIDDEN"),
+                eq(1L), eq(1L), eq(1L), eq(1L), eq(0L), eq(0L), eq(0L), eq(0L), eq(0L), any());
+        verifyNoMoreInteractions(statsRepository);
+    }
+
+    @Test
+    void clearingTheHideReasonMakesTheReviewUnmoderatedAgain() {
+        service.recordModerated(SHOP, PRODUCT, 2,
+                ReviewStatus.HIDDEN, HideReason.DUPLICATED, ReviewStatus.HIDDEN, null);
+
+        InOrder order = inOrder(statsRepository);
+        order.verify(statsRepository).addDelta(eq(SHOP), eq(PRODUCT), eq("HIDDEN"),
+                eq(-1L), eq(-2L), eq(-1L), eq(0L), eq(-1L), eq(0L), eq(0L), eq(0L), eq(0L), any());
+        order.verify(statsRepository).addDelta(eq(SHOP), eq(PRODUCT), eq("HIDDEN"),
+                eq(1L), eq(2L), eq(1L), eq(0L), eq(1L), eq(0L), eq(0L), eq(0L), eq(1L), any());
+        verifyNoMoreInteractions(statsRepository);
+    }
+
+    @Test
+    void changingOnlyTheHideReasonKeepsTheBucket() {
+        service.recordModerated(SHOP, PRODUCT, 3,
+                ReviewStatus.HIDDEN, HideReason.SPAM, ReviewStatus.HIDDEN, HideReason.FAKE);
+
+        verify(statsRepository, never()).addDelta(anyString(), anyString(), anyString(), anyLong(), anyLong(),
+                anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void reviewWithoutRatingOnlyMovesTheTotal() {
+        service.recordModerated(SHOP, PRODUCT, null,
+                ReviewStatus.PUBLISHED, null, ReviewStatus.ARCHIVED, null);
+
+        InOrder order = inOrder(statsRepository);
+        order.verify(statsRepository).addDelta(eq(SHOP), eq(PRODUCT), eq("PUBLISHED"),
+                eq(-1L), eq(0L), eq(0L), eq(0L), eq(0L), eq(0L), eq(0L), eq(0L), eq(0L), any());
+        order.verify(statsRepository).addDelta(eq(SHOP), eq(PRODUCT), eq("ARCHIVED"),
+                eq(1L), eq(0L), eq(0L), eq(0L), eq(0L), eq(0L), eq(0L), eq(0L), eq(1L), any());
+        verifyNoMoreInteractions(statsRepository);
+    }
+}
@@ -0,0 +1,91 @@
+package org.chatapp.customshopify.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * products/update payloads as Shopify sends them (trimmed), read by the streaming parser.
+ */
+class ProductWebhookParserTest {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Test
+    void readsNumericIdAndFirstVariantPrices() throws IOException {
+        ProductWebhookParser.ProductPrices prices = parse("""
+                {"id": 8412345678, "title": "Shirt", "variants": [
+                  {"id": 1, "price": "49.00", "compare_at_price": "59.00"},
+                  {"id": 2, "price": "45.00", "compare_at_price": "55.00"}
+                ]}""");
+        assertEquals("gid://shopify/Product/8412345678", prices.productId());
+        assertEquals("49.00", prices.price());
+        assertEquals("59.00", prices.compareAtPrice());
+    }
+
+    @Test
+    void nullCompareAtPriceIsNull() throws IOException {
+        ProductWebhookParser.ProductPrices prices = parse("""
+                {"id": 1, "variants": [{"price": "10.00", "compare_at_price": null}]}""");
+        assertEquals("10.00", prices.price());
+        assertNull(prices.compareAtPrice());
+    }
+
+    @Test
+    void productWithoutVariantsHasNoPrices() throws IOException {
+        for (String payload : new String[]{"{\"id\": 1, \"variants\": []}", "{\"id\": 1}"}) {
+            ProductWebhookParser.ProductPrices prices = parse(payload);
+            assertEquals("gid://shopify/Product/1", prices.productId());
+            assertNull(prices.price());
+            assertNull(prices.compareAtPrice());
+        }
+    }
+
+    @Test
+    void variantWithoutPriceIsRejected() {
+        assertThrows(IOException.class, () -> parse("""
+                {"id": 1, "variants": [{"id": 2, "compare_at_price": "5.00"}]}"""));
+        assertThrows(IOException.class, () -> parse("""
+                {"id": 1, "variants": [{"id": 2, "price": null}]}"""));
+    }
+
+    @Test
+    void payloadWithoutIdIsRejected() {
+        assertThrows(IOException.class, () -> parse("{\"variants\": [{\"price\": \"1.00\"}]}"));
+        assertThrows(IOException.class, () -> parse("[]"));
+    }
+
+    @Test
+    void ignoresNestedFieldsBeforeVariants() throws IOException {
+        // Nested ids, prices and variants must not be taken for the product's own
+        ProductWebhookParser.ProductPrices prices = parse("""
+                {"title": "Shirt",
+                 "image": {"id": 99, "src": "https://cdn/a.jpg", "variant_ids": [5, 6]},
+                 "options": [{"id": 98, "values": ["S", "M"], "price": "0.00"}],
+                 "metafields": {"variants": [{"price": "1.00"}], "nested": {"deeper": [[{"id": 97}]]}},
+                 "id": 7,
+                 "variants": [{"price": "20.00", "presentment_prices": [{"price": {"amount": "1"}}],
+                               "compare_at_price": "25.00"}],
+                 "images": [{"id": 96}]}""");
+        assertEquals("gid://shopify/Product/7", prices.productId());
+        assertEquals("20.00", prices.price());
+        assertEquals("25.00", prices.compareAtPrice());
+    }
+
+    @Test
+    void skipsANonObjectFirstVariantAndKeepsReadingTheProduct() throws IOException {
+        ProductWebhookParser.ProductPrices prices = parse("""
+                {"variants": [[{"price": "1.00"}], {"price": "2.00"}], "id": 3}""");
+        assertEquals("gid://shopify/Product/3", prices.productId());
+        assertNull(prices.price());
+    }
+
+    private ProductWebhookParser.ProductPrices parse(String payload) throws IOException {
+        return ProductWebhookParser.parse(jsonFactory, payload);
+    }
+}
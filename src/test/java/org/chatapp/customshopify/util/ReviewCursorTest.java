@@ -0,0 +1,83 @@
+package org.chatapp.customshopify.util;
+
+import org.chatapp.customshopify.dto.response.ReviewItemResponse;
+import org.chatapp.customshopify.exception.AppException;
+import org.chatapp.customshopify.exception.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Cursors come back from clients as-is, so anything that does not decode must be a 400, never a 500.
+ */
+class ReviewCursorTest {
+
+    @Test
+    void roundTripsPinnedAndUnpinned() {
+        for (boolean pinned : new boolean[]{true, false}) {
+            ReviewCursor cursor = new ReviewCursor(pinned, LocalDateTime.of(2026, 10, 19, 12, 30, 5, 123_456_789), 42L);
+            assertEquals(cursor, ReviewCursor.decode(cursor.encode()));
+        }
+    }
+
+    @Test
+    void roundTripsFromAReview() {
+        ReviewItemResponse review = ReviewItemResponse.builder()
+                .id(7L)
+                .isPinned(null)
+                .createdAt(LocalDateTime.of(2026, 1, 1, 0, 0))
+                .build();
+        ReviewCursor cursor = ReviewCursor.of(review);
+        assertFalse(cursor.pinned());
+        assertEquals(cursor, ReviewCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void encodesUrlSafeWithoutPadding() {
+        String encoded = new ReviewCursor(true, LocalDateTime.of(2026, 10, 19, 12, 0), 1L).encode();
+        assertFalse(encoded.contains("+") || encoded.contains("/") || encoded.contains("="), encoded);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "not base64!",
+            "%%%",
+            "a",
+    })
+    void rejectsBadBase64(String cursor) {
+        assertInvalid(cursor);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "1|2026-10-19T12:00",
+            "1|2026-10-19T12:00|5|6",
+            "1|2026-10-19T12:00|",
+            "1|yesterday|5",
+            "1|2026-10-19T12:00|five",
+            "1|null|5",
+            "garbage",
+    })
+    void rejectsMalformedFields(String raw) {
+        assertInvalid(Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void rejectsNull() {
+        assertInvalid(null);
+    }
+
+    private static void assertInvalid(String cursor) {
+        AppException e = assertThrows(AppException.class, () -> ReviewCursor.decode(cursor));
+        assertEquals(ErrorCode.INVALID_REQUEST, e.getErrorCode());
+    }
+}